@@ -0,0 +1,55 @@
+package com.example.coursework.benchmark;
+
+import com.example.coursework.dto.CardProgressDto;
+import com.example.coursework.mapper.CardProgressMapper;
+import com.example.coursework.model.Card;
+import com.example.coursework.model.User;
+import com.example.coursework.model.UserProgress;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardProgressMapperBenchmark {
+
+    private final CardProgressMapper mapper = new CardProgressMapper();
+    private User user;
+    private Card card;
+    private UserProgress newProgress;
+    private UserProgress answeredProgress;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("bench");
+
+        card = new Card();
+        card.setId(42L);
+        card.setWord("ubiquitous");
+        card.setSentence("Smartphones have become ubiquitous in modern life.");
+        card.setTranslation("всюдисущий");
+        card.setSynonyms("omnipresent, pervasive");
+        card.setType("adjective");
+
+        newProgress = new UserProgress(user, card);
+        answeredProgress = new UserProgress(user, card);
+        answeredProgress.setLastAnswered(LocalDateTime.now().minusHours(5));
+    }
+
+    @Benchmark
+    public CardProgressDto toDtoNewCard() {
+        return mapper.toDto(card, user, newProgress);
+    }
+
+    @Benchmark
+    public CardProgressDto toDtoAnsweredCard() {
+        return mapper.toDto(card, user, answeredProgress);
+    }
+}
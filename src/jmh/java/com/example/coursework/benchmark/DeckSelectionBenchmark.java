@@ -0,0 +1,90 @@
+package com.example.coursework.benchmark;
+
+import com.example.coursework.cache.DueQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Вибір READY карток для нової колоди на синтетичному користувачі з великою історією.
+// fullSort - як було до запиту з LIMIT: уся історія в пам'ять і сортування;
+// boundedHeap - верхні 5 за один прохід; dueQueue - готова купа з DueQueueIndex
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class DeckSelectionBenchmark {
+
+    private static final int DECK_SIZE = 5;
+    private static final long NOW = 1_700_000_000L;
+
+    @Param({"10000", "100000", "1000000"})
+    public int progressRows;
+
+    private List<ProgressRow> rows;
+    private DueQueue dueQueue;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        rows = new ArrayList<>(progressRows);
+        dueQueue = new DueQueue(progressRows, Long.MAX_VALUE);
+        for (int i = 0; i < progressRows; i++) {
+            long due = NOW + random.nextInt(90 * 24 * 3600) - 30L * 24 * 3600;
+            // Приблизно кожна сота картка зараз у колоді
+            boolean ready = random.nextInt(100) != 0;
+            rows.add(new ProgressRow(i + 1, due, ready));
+            if (ready) {
+                dueQueue.offer(i + 1, due);
+            }
+        }
+    }
+
+    @Benchmark
+    public long[] fullSort() {
+        List<ProgressRow> ready = new ArrayList<>();
+        for (ProgressRow row : rows) {
+            if (row.ready()) {
+                ready.add(row);
+            }
+        }
+        ready.sort(Comparator.comparingLong(ProgressRow::due));
+        long[] deck = new long[Math.min(DECK_SIZE, ready.size())];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = ready.get(i).cardId();
+        }
+        return deck;
+    }
+
+    @Benchmark
+    public long[] boundedHeap() {
+        PriorityQueue<ProgressRow> top = new PriorityQueue<>(DECK_SIZE + 1, Comparator.comparingLong(ProgressRow::due).reversed());
+        for (ProgressRow row : rows) {
+            if (row.ready()) {
+                top.offer(row);
+                if (top.size() > DECK_SIZE) {
+                    top.poll();
+                }
+            }
+        }
+        long[] deck = new long[top.size()];
+        for (int i = deck.length - 1; i >= 0; i--) {
+            deck[i] = top.poll().cardId();
+        }
+        return deck;
+    }
+
+    @Benchmark
+    public long[] dueQueue() {
+        return dueQueue.peekFirst(DECK_SIZE);
+    }
+
+    private record ProgressRow(long cardId, long due, boolean ready) {
+    }
+}
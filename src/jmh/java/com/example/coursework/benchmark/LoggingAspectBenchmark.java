@@ -0,0 +1,102 @@
+package com.example.coursework.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.coursework.annotations.Loggable;
+import com.example.coursework.aspect.LoggingAspect;
+import com.example.coursework.model.Role;
+import com.example.coursework.model.User;
+import com.example.coursework.service.UserService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Вартість @Loggable: прямий виклик проти проксі з LoggingAspect у кожному режимі.
+// Лог пишеться з повним форматуванням, але в нікуди, щоб міряти аспект, а не консоль
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+
+    @Param({"FULL", "LEAN", "OFF"})
+    public LoggingAspect.Mode mode;
+
+    private Target plain;
+    private Target advised;
+    private OutputStreamAppender<ILoggingEvent> appender;
+
+    @Setup
+    public void setUp() {
+        configureLogging();
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("bench");
+        Role role = new Role();
+        role.setId(1L);
+        role.setName("USER");
+        user.setRoles(List.of(role));
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.getCurrentUser()).thenReturn(user);
+
+        plain = new Target();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect(userService, mode, 100, 1000));
+        advised = factory.getProxy();
+    }
+
+    @TearDown
+    public void tearDown() {
+        appender.stop();
+    }
+
+    @Benchmark
+    public int withoutAdvice() {
+        return plain.score(7, "ubiquitous");
+    }
+
+    @Benchmark
+    public int withAdvice() {
+        return advised.score(7, "ubiquitous");
+    }
+
+    private void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+    }
+
+    @Loggable
+    public static class Target {
+
+        public int score(int level, String word) {
+            return level * 31 + word.length();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.coursework.benchmark;
+
+import com.example.coursework.scheduling.FsrsAlgorithm;
+import com.example.coursework.scheduling.ReviewState;
+import com.example.coursework.scheduling.SchedulingAlgorithm;
+import com.example.coursework.scheduling.Sm2Algorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Математика планування з LearningService: відповідь (next) і прев'ю для колоди (previewDelaySeconds)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchedulingBenchmark {
+
+    private static final int STATES = 1024;
+    private static final long NOW = 1_700_000_000L;
+
+    @Param({"sm2", "fsrs"})
+    public String algorithmName;
+
+    private SchedulingAlgorithm algorithm;
+    private ReviewState[] states;
+    private boolean[] answers;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        algorithm = "fsrs".equals(algorithmName) ? new FsrsAlgorithm() : new Sm2Algorithm();
+        Random random = new Random(42);
+        states = new ReviewState[STATES];
+        answers = new boolean[STATES];
+        for (int i = 0; i < STATES; i++) {
+            int reps = random.nextInt(8);
+            boolean scheduled = reps > 0 && random.nextBoolean();
+            states[i] = new ReviewState(reps, 1 + random.nextInt(120), 1.3 + random.nextDouble() * 1.7,
+                    scheduled ? 0.5 + random.nextDouble() * 100 : 0,
+                    scheduled ? 1 + random.nextDouble() * 9 : 0,
+                    reps == 0 ? ReviewState.NEVER : NOW - random.nextInt(60 * 24 * 3600), 0);
+            answers[i] = random.nextInt(10) < 8;
+        }
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (STATES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public ReviewState answer() {
+        int i = nextIndex();
+        return algorithm.next(states[i], answers[i], NOW);
+    }
+
+    @Benchmark
+    public void previewDeck(Blackhole blackhole) {
+        // Колода з 5 карток, по два прев'ю на картку - як у formatTimeFields
+        for (int card = 0; card < 5; card++) {
+            ReviewState state = states[nextIndex()];
+            blackhole.consume(algorithm.previewDelaySeconds(state, true, NOW));
+            blackhole.consume(algorithm.previewDelaySeconds(state, false, NOW));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.coursework.benchmark;
+
+import com.example.coursework.service.TimeFormattingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeFormattingBenchmark {
+
+    // Секунди, хвилини, години і дні - усі гілки форматування
+    private static final long[] OFFSETS_SECONDS = {30, 5 * 60, 3 * 3600, 4 * 86400, 45 * 86400};
+
+    private final TimeFormattingService service = new TimeFormattingService();
+    private LocalDateTime[] past;
+    private LocalDateTime[] future;
+    private int index;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        past = new LocalDateTime[OFFSETS_SECONDS.length];
+        future = new LocalDateTime[OFFSETS_SECONDS.length];
+        for (int i = 0; i < OFFSETS_SECONDS.length; i++) {
+            past[i] = now.minusSeconds(OFFSETS_SECONDS[i]);
+            future[i] = now.plusSeconds(OFFSETS_SECONDS[i]);
+        }
+    }
+
+    private int nextIndex() {
+        index = index + 1 == OFFSETS_SECONDS.length ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public String formatTimeAgo() {
+        return service.formatTimeAgo(past[nextIndex()]);
+    }
+
+    @Benchmark
+    public String formatTimeUntil() {
+        return service.formatTimeUntil(future[nextIndex()]);
+    }
+}
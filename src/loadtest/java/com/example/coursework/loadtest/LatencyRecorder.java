@@ -0,0 +1,54 @@
+package com.example.coursework.loadtest;
+
+import java.util.Arrays;
+
+// Сирі латентності в наносекундах; перцентилі рахуються за відсортованою копією наприкінці прогону
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+
+    synchronized void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    synchronized void recordError() {
+        errors++;
+    }
+
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, errors);
+    }
+
+    record Snapshot(long[] sorted, long errors) {
+
+        int count() {
+            return sorted.length;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+        }
+
+        double meanMillis() {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            long total = 0;
+            for (long sample : sorted) {
+                total += sample;
+            }
+            return total / (double) sorted.length / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.coursework.loadtest;
+
+import com.example.coursework.CourseworkApplication;
+import com.example.coursework.jdbc.SqlStatementHeaderAdvice;
+import com.example.coursework.model.Role;
+import com.example.coursework.repository.RoleRepository;
+import com.example.coursework.service.CardImportFormat;
+import com.example.coursework.service.CardImportService;
+import com.example.coursework.service.UserService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Навантажувальний прогін циклу з static/js/script.js: get-cards -> answer -> пауза.
+// Застосунок піднімається в цьому ж процесі на вбудованому PostgreSQL, тож зовнішня інфраструктура не потрібна.
+// Параметри: --users --concurrency --duration --warmup (секунди) --think-time (мс) --cards --auth=basic|form
+public class LoadTestRunner {
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final double CORRECT_ANSWER_RATE = 0.8;
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyRecorder getCardsLatency = new LatencyRecorder();
+    private final LatencyRecorder answerLatency = new LatencyRecorder();
+    private final LongAdder statements = new LongAdder();
+    private volatile long measureFromNanos;
+
+    private LoadTestRunner(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new LoadTestRunner(options).run();
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private void run() throws Exception {
+        int users = intOption("users", 50);
+        int concurrency = Math.min(intOption("concurrency", 16), users);
+        int durationSeconds = intOption("duration", 60);
+        int warmupSeconds = intOption("warmup", 10);
+        int thinkTimeMillis = intOption("think-time", 500);
+        int cards = intOption("cards", 5000);
+        boolean formLogin = "form".equals(options.getOrDefault("auth", "basic"));
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(CourseworkApplication.class).run(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=",
+                    "--server.port=0",
+                    "--learnlingua.sql.counting.enabled=true",
+                    "--learnlingua.logging.aspect.mode=" + options.getOrDefault("aspect-mode", "LEAN"));
+            try {
+                seed(context, users, cards);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                List<VirtualUser> virtualUsers = login(URI.create("http://localhost:" + port), users, formLogin);
+
+                long runStart = System.nanoTime();
+                measureFromNanos = runStart + TimeUnit.SECONDS.toNanos(warmupSeconds);
+                long deadline = measureFromNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+                ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+                for (int worker = 0; worker < concurrency; worker++) {
+                    List<VirtualUser> assigned = new ArrayList<>();
+                    // Кожен користувач належить одному потоку, як одна вкладка браузера
+                    for (int i = worker; i < virtualUsers.size(); i += concurrency) {
+                        assigned.add(virtualUsers.get(i));
+                    }
+                    workers.submit(() -> drive(assigned, deadline, thinkTimeMillis));
+                }
+
+                workers.shutdown();
+                workers.awaitTermination(warmupSeconds + durationSeconds + 60L, TimeUnit.SECONDS);
+
+                report(users, concurrency, durationSeconds, thinkTimeMillis, formLogin);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context, int users, int cards) throws Exception {
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        if (roleRepository.findByName("USER").isEmpty()) {
+            Role role = new Role();
+            role.setName("USER");
+            roleRepository.save(role);
+        }
+
+        StringBuilder csv = new StringBuilder("word,sentence,translation,synonyms,type\n");
+        for (int i = 0; i < cards; i++) {
+            csv.append("word").append(i).append(",The word").append(i).append(" is used in a sentence.,переклад")
+                    .append(i).append(",synonym").append(i).append(',').append(i % 3 == 0 ? "verb" : "noun").append('\n');
+        }
+        context.getBean(CardImportService.class).importCards(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), CardImportFormat.CSV, 1000);
+
+        UserService userService = context.getBean(UserService.class);
+        for (int i = 0; i < users; i++) {
+            userService.createUser(username(i), PASSWORD);
+        }
+    }
+
+    private List<VirtualUser> login(URI baseUri, int users, boolean formLogin) throws Exception {
+        List<VirtualUser> virtualUsers = new ArrayList<>(users);
+        HttpClient sharedClient = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+        for (int i = 0; i < users; i++) {
+            String username = username(i);
+            if (formLogin) {
+                // Як браузер: одна форма входу, далі лише cookie сесії
+                HttpClient client = HttpClient.newBuilder()
+                        .cookieHandler(new CookieManager())
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .build();
+                String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                        + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8);
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 302 || response.headers().firstValue("Location").orElse("").contains("error")) {
+                    throw new IllegalStateException("Form login failed for " + username);
+                }
+                virtualUsers.add(new VirtualUser(client, baseUri, null));
+            } else {
+                String token = Base64.getEncoder().encodeToString((username + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+                virtualUsers.add(new VirtualUser(sharedClient, baseUri, "Basic " + token));
+            }
+        }
+        return virtualUsers;
+    }
+
+    private void drive(List<VirtualUser> users, long deadline, int thinkTimeMillis) {
+        while (System.nanoTime() < deadline) {
+            for (VirtualUser user : users) {
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+                try {
+                    iterate(user);
+                    if (thinkTimeMillis > 0) {
+                        Thread.sleep(ThreadLocalRandom.current().nextInt(thinkTimeMillis / 2, thinkTimeMillis + thinkTimeMillis / 2 + 1));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    getCardsLatency.recordError();
+                }
+            }
+        }
+    }
+
+    private void iterate(VirtualUser user) throws Exception {
+        long started = System.nanoTime();
+        HttpResponse<String> cardsResponse = user.client().send(user.request("/api/learn/get-cards").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        record(getCardsLatency, started, cardsResponse);
+        if (cardsResponse.statusCode() != 200) {
+            return;
+        }
+
+        List<Map<String, Object>> cards = objectMapper.readValue(cardsResponse.body(), new TypeReference<>() {
+        });
+        Map<String, Boolean> answers = new LinkedHashMap<>();
+        for (Map<String, Object> card : cards) {
+            answers.put(String.valueOf(card.get("cardId")), ThreadLocalRandom.current().nextDouble() < CORRECT_ANSWER_RATE);
+        }
+
+        started = System.nanoTime();
+        HttpResponse<String> answerResponse = user.client().send(user.request("/api/learn/answer")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(answers)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        record(answerLatency, started, answerResponse);
+    }
+
+    private void record(LatencyRecorder recorder, long startedNanos, HttpResponse<?> response) {
+        long elapsed = System.nanoTime() - startedNanos;
+        if (startedNanos < measureFromNanos) {
+            return;
+        }
+        response.headers().firstValue(SqlStatementHeaderAdvice.STATEMENT_COUNT_HEADER)
+                .ifPresent(count -> statements.add(Long.parseLong(count)));
+        if (response.statusCode() == 200) {
+            recorder.record(elapsed);
+        } else {
+            recorder.recordError();
+        }
+    }
+
+    private void report(int users, int concurrency, int durationSeconds, int thinkTimeMillis, boolean formLogin) throws Exception {
+        LatencyRecorder.Snapshot getCards = getCardsLatency.snapshot();
+        LatencyRecorder.Snapshot answer = answerLatency.snapshot();
+        long requests = getCards.count() + answer.count();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", users);
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", durationSeconds);
+        report.put("thinkTimeMillis", thinkTimeMillis);
+        report.put("auth", formLogin ? "form" : "basic");
+        report.put("requests", requests);
+        report.put("throughputPerSecond", requests / (double) durationSeconds);
+        // З заголовка X-SQL-Statement-Count: Hibernate і JdbcTemplate разом, пакет рахується як один запит
+        report.put("sqlStatementsPerRequest", requests == 0 ? 0 : statements.sum() / (double) requests);
+        report.put("getCards", endpointReport(getCards, durationSeconds));
+        report.put("answer", endpointReport(answer, durationSeconds));
+
+        System.out.printf("%n%-10s %8s %8s %10s %10s %10s %10s%n", "endpoint", "count", "errors", "rps", "p50 ms", "p95 ms", "p99 ms");
+        printRow("get-cards", getCards, durationSeconds);
+        printRow("answer", answer, durationSeconds);
+        System.out.printf("throughput: %.1f req/s, SQL statements/request: %.2f%n",
+                report.get("throughputPerSecond"), report.get("sqlStatementsPerRequest"));
+
+        File output = new File(options.getOrDefault("report", "target/loadtest-report.json"));
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, report);
+        System.out.println("report: " + output.getAbsolutePath());
+    }
+
+    private static Map<String, Object> endpointReport(LatencyRecorder.Snapshot snapshot, int durationSeconds) {
+        Map<String, Object> endpoint = new LinkedHashMap<>();
+        endpoint.put("count", snapshot.count());
+        endpoint.put("errors", snapshot.errors());
+        endpoint.put("throughputPerSecond", snapshot.count() / (double) durationSeconds);
+        endpoint.put("meanMillis", snapshot.meanMillis());
+        endpoint.put("p50Millis", snapshot.percentileMillis(50));
+        endpoint.put("p95Millis", snapshot.percentileMillis(95));
+        endpoint.put("p99Millis", snapshot.percentileMillis(99));
+        return endpoint;
+    }
+
+    private static void printRow(String name, LatencyRecorder.Snapshot snapshot, int durationSeconds) {
+        System.out.printf("%-10s %8d %8d %10.1f %10.2f %10.2f %10.2f%n", name, snapshot.count(), snapshot.errors(),
+                snapshot.count() / (double) durationSeconds, snapshot.percentileMillis(50),
+                snapshot.percentileMillis(95), snapshot.percentileMillis(99));
+    }
+
+    private static String username(int index) {
+        return "loadtest-user-" + index;
+    }
+
+    private record VirtualUser(HttpClient client, URI baseUri, String authorization) {
+
+        HttpRequest.Builder request(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+            if (authorization != null) {
+                builder.header("Authorization", authorization);
+            }
+            return builder;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.coursework.aspect;
 
+import com.example.coursework.model.User;
 import com.example.coursework.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,59 +11,137 @@ import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 @Aspect
 @Component
 public class LoggingAspect {
 
+    // FULL - кожен виклик; LEAN - вибірково, без JSON-тіла; OFF - лише proceed()
+    public enum Mode {
+        FULL, LEAN, OFF
+    }
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<JoinPoint.StaticPart, AtomicLong> invocationCounters = new ConcurrentHashMap<>();
 
     private final UserService userService;
+    private final Mode mode;
+    private final int sampleRate;
+    private final int maxValueLength;
 
     @Autowired
-    public LoggingAspect(UserService userService) {
+    public LoggingAspect(UserService userService,
+                         @Value("${learnlingua.logging.aspect.mode:FULL}") Mode mode,
+                         @Value("${learnlingua.logging.aspect.sample-rate:100}") int sampleRate,
+                         @Value("${learnlingua.logging.aspect.max-value-length:1000}") int maxValueLength) {
         this.userService = userService;
+        this.mode = mode;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.maxValueLength = maxValueLength;
     }
 
     @Around("@within(com.example.coursework.annotations.Loggable) || @annotation(com.example.coursework.annotations.Loggable)")
     public Object log(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (mode == Mode.OFF) {
+            return joinPoint.proceed();
+        }
+
+        boolean traced = logger.isInfoEnabled() && isSampled(joinPoint);
+        if (traced) {
+            logBefore(joinPoint);
+        }
+
+        Object result;
+        try {
+            result = joinPoint.proceed(); // Викликаємо цільовий метод
+        } catch (Throwable throwable) {
+            // Помилки логуються завжди, незалежно від вибірки
+            logger.error("{} - Exception in: {}.{} with message: {}", getLayer(joinPoint), joinPoint.getSignature().getDeclaringTypeName(),
+                    joinPoint.getSignature().toShortString(), throwable.getMessage());
+            throw throwable;
+        }
+        if (traced) {
+            logger.info("{} - After invocation: {}.{} with result: {}", getLayer(joinPoint), joinPoint.getSignature().getDeclaringTypeName(),
+                    joinPoint.getSignature().toShortString(), lazy(() -> String.valueOf(result)));
+        }
+        return result;
+    }
+
+    private void logBefore(ProceedingJoinPoint joinPoint) {
         String layer = getLayer(joinPoint);
         String methodName = joinPoint.getSignature().toShortString();
 
-        // Отримуємо параметри HTTP-запиту
-        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
-        Map<String, String> requestParams = getRequestParams(request);
+        // Поза HTTP-запитом (планувальник, async) параметрів запиту немає
+        HttpServletRequest request = currentRequest();
 
-        // Логуємо інформацію перед викликом методу
+        // Логуємо інформацію перед викликом методу; важкі значення рендеряться лише при записі
+        User user = currentUser();
         logger.info("{} - Before invocation: {}.{} with parameters: {}, request params: {}, userId: {}, userRole: {}",
-                layer, joinPoint.getSignature().getDeclaringTypeName(), methodName, Arrays.toString(joinPoint.getArgs()),
-                requestParams, userService.getCurrentUser().getId(), userService.getCurrentUser().getRoles());
+                layer, joinPoint.getSignature().getDeclaringTypeName(), methodName, lazy(() -> Arrays.toString(joinPoint.getArgs())),
+                lazy(() -> String.valueOf(getRequestParams(request))), user != null ? user.getId() : null,
+                user != null ? user.getRoles() : null);
 
         // Якщо є JSON-тіло, логуємо його
-        if (request.getContentType() != null && request.getContentType().contains("application/json")) {
-            try {
-                String jsonBody = objectMapper.writeValueAsString(joinPoint.getArgs()[0]);
-                logger.debug("{} - JSON body: {}", layer, jsonBody);
-            } catch (Exception e) {
-                logger.warn("{} - Failed to log JSON body: {}", layer, e.getMessage());
-            }
+        if (mode == Mode.FULL && logger.isDebugEnabled() && request != null && joinPoint.getArgs().length > 0
+                && request.getContentType() != null && request.getContentType().contains("application/json")) {
+            logger.debug("{} - JSON body: {}", layer, lazy(() -> toJson(joinPoint.getArgs()[0])));
         }
+    }
 
-        Object result;
+    private boolean isSampled(JoinPoint joinPoint) {
+        if (mode == Mode.FULL || sampleRate == 1) {
+            return true;
+        }
+        AtomicLong counter = invocationCounters.computeIfAbsent(joinPoint.getStaticPart(), key -> new AtomicLong());
+        return counter.getAndIncrement() % sampleRate == 0;
+    }
+
+    private HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletRequestAttributes) {
+            return servletRequestAttributes.getRequest();
+        }
+        return null;
+    }
+
+    private User currentUser() {
         try {
-            result = joinPoint.proceed(); // Викликаємо цільовий метод
-            logger.info("{} - After invocation: {}.{} with result: {}", layer, joinPoint.getSignature().getDeclaringTypeName(), methodName, result);
-        } catch (Throwable throwable) {
-            logger.error("{} - Exception in: {}.{} with message: {}", layer, joinPoint.getSignature().getDeclaringTypeName(), methodName, throwable.getMessage());
-            throw throwable;
+            return userService.getCurrentUser();
+        } catch (IllegalStateException e) {
+            return null; // анонімний запит або фонове завдання
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (Exception e) {
+            return "<failed to serialize: " + e.getMessage() + ">";
         }
-        return result;
+    }
+
+    private Object lazy(Supplier<String> renderer) {
+        return new Object() {
+            @Override
+            public String toString() {
+                String value = renderer.get();
+                if (maxValueLength > 0 && value != null && value.length() > maxValueLength) {
+                    return value.substring(0, maxValueLength) + "...(" + value.length() + " chars)";
+                }
+                return value;
+            }
+        };
     }
 
     private String getLayer(JoinPoint joinPoint) {
@@ -80,6 +159,9 @@ public class LoggingAspect {
     // Допоміжний метод для отримання параметрів HTTP-запиту
     private Map<String, String> getRequestParams(HttpServletRequest request) {
         Map<String, String> params = new HashMap<>();
+        if (request == null) {
+            return params;
+        }
         Enumeration<String> parameterNames = request.getParameterNames();
         while (parameterNames.hasMoreElements()) {
             String paramName = parameterNames.nextElement();
@@ -88,4 +170,4 @@ public class LoggingAspect {
         return params;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.example.coursework.aspect;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TransactionCapacityExceededException extends RuntimeException {
+
+    public TransactionCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.coursework.aspect;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// З віртуальними потоками кількість одночасних запитів більше не обмежена пулом Tomcat,
+// тож обмежуємо транзакції перед пулом з'єднань: зайві чекають на семафорі, а не в Hikari.
+// Обгортаємо сам менеджер транзакцій, щоб дозвіл брався до відкриття з'єднання і для @Transactional,
+// і для TransactionTemplate. Semaphore паркує віртуальний потік без закріплення за носієм, на відміну від synchronized
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class TransactionConcurrencyLimiter implements BeanPostProcessor, SmartInitializingSingleton {
+
+    // Вкладені транзакції в тому ж потоці (REQUIRED чи REQUIRES_NEW) не беруть другий дозвіл
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private volatile Timer waitTimer;
+
+    // За замовчуванням дозволів стільки ж, скільки з'єднань у пулі Hikari
+    @Autowired
+    public TransactionConcurrencyLimiter(ObjectProvider<MeterRegistry> registryProvider,
+                                         @Value("${learnlingua.virtual-threads.max-concurrent-transactions:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+                                         @Value("${learnlingua.virtual-threads.acquire-timeout:5s}") Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeout = acquireTimeout;
+        this.registryProvider = registryProvider;
+        if (Runtime.version().feature() < 21) {
+            logger.warn("spring.threads.virtual.enabled is set, but Java {} has no virtual threads; requests stay on platform threads",
+                    Runtime.version().feature());
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof PlatformTransactionManager transactionManager) {
+            return new LimitedTransactionManager(transactionManager);
+        }
+        return bean;
+    }
+
+    // Метрики реєструються після створення бінів: BeanPostProcessor не повинен тягнути MeterRegistry завчасно
+    @Override
+    public void afterSingletonsInstantiated() {
+        MeterRegistry registry = registryProvider.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        waitTimer = Timer.builder("learnlingua.transactions.permit.wait").register(registry);
+        Gauge.builder("learnlingua.transactions.permits.available", permits, Semaphore::availablePermits).register(registry);
+    }
+
+    private void enter() {
+        int[] depth = DEPTH.get();
+        if (depth[0] == 0) {
+            acquire();
+        }
+        depth[0]++;
+    }
+
+    private void exit() {
+        int[] depth = DEPTH.get();
+        if (--depth[0] == 0) {
+            DEPTH.remove();
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        long startedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionCapacityExceededException("Interrupted while waiting for a transaction permit");
+        } finally {
+            Timer timer = waitTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (!acquired) {
+            throw new TransactionCapacityExceededException("Too many concurrent transactions, try again later");
+        }
+    }
+
+    // Кожен getTransaction закривається рівно одним commit або rollback, тож глибина в потоці завжди зійдеться
+    private final class LimitedTransactionManager implements PlatformTransactionManager {
+
+        private final PlatformTransactionManager delegate;
+
+        LimitedTransactionManager(PlatformTransactionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            enter();
+            try {
+                return delegate.getTransaction(definition);
+            } catch (RuntimeException | Error e) {
+                exit();
+                throw e;
+            }
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            try {
+                delegate.commit(status);
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            try {
+                delegate.rollback(status);
+            } finally {
+                exit();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.coursework.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// principal -> знімок користувача; інвалідовується при змінах users/roles
+@Component
+public class CurrentUserCache {
+
+    private final TtlCache<String, UserSnapshot> snapshots;
+
+    public CurrentUserCache(@Value("${learnlingua.user-cache.max-size:10000}") int maxSize,
+                            @Value("${learnlingua.user-cache.ttl:5m}") Duration ttl) {
+        this.snapshots = new TtlCache<>(maxSize, ttl);
+    }
+
+    public UserSnapshot get(String username) {
+        return snapshots.get(username);
+    }
+
+    public void put(UserSnapshot snapshot) {
+        snapshots.put(snapshot.getUsername(), snapshot);
+    }
+
+    public void invalidate(String username) {
+        snapshots.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    public TtlCache<String, UserSnapshot> getSnapshots() {
+        return snapshots;
+    }
+}
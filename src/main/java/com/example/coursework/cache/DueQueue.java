@@ -0,0 +1,343 @@
+package com.example.coursework.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Мін-купа пар (cardId, due) на примітивних масивах з індексом позицій для оновлення за O(log n).
+// ReentrantLock замість synchronized: під конкуренцією віртуальний потік паркується, а не закріплює носія
+public class DueQueue {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] cardIds;
+    private long[] dues;
+    private int size;
+    private final CardPositions positions;
+    // Якщо в черзі не всі READY картки, тримаємо лише ті, що не пізніше цієї межі; межа лише опускається
+    private volatile long boundary;
+    private final int maxSize;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public DueQueue(int expectedSize, long boundary) {
+        this(expectedSize, boundary, Integer.MAX_VALUE);
+    }
+
+    public DueQueue(int expectedSize, long boundary, int maxSize) {
+        int capacity = Math.max(MIN_CAPACITY, Math.min(expectedSize, maxSize));
+        this.cardIds = new long[capacity];
+        this.dues = new long[capacity];
+        this.positions = new CardPositions(capacity);
+        this.boundary = boundary;
+        this.maxSize = maxSize;
+    }
+
+    public void offer(long cardId, long due) {
+        lock.lock();
+        try {
+            touch();
+            int index = positions.get(cardId);
+            if (due > boundary) {
+                if (index >= 0) {
+                    removeAt(index);
+                }
+                return;
+            }
+            if (index >= 0) {
+                long previous = dues[index];
+                dues[index] = due;
+                if (due < previous) {
+                    siftUp(index);
+                } else {
+                    siftDown(index);
+                }
+                return;
+            }
+            if (size >= maxSize && !makeRoomFor(cardId, due)) {
+                return;
+            }
+            if (size == cardIds.length) {
+                int capacity = (int) Math.min((long) size * 2, Math.max(maxSize, MIN_CAPACITY));
+                cardIds = Arrays.copyOf(cardIds, capacity);
+                dues = Arrays.copyOf(dues, capacity);
+            }
+            cardIds[size] = cardId;
+            dues[size] = due;
+            positions.put(cardId, size);
+            siftUp(size++);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean remove(long cardId) {
+        lock.lock();
+        try {
+            touch();
+            int index = positions.get(cardId);
+            if (index < 0) {
+                return false;
+            }
+            removeAt(index);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Картку видалили з каталогу: час доступу не оновлюємо, інакше неактивні черги ніколи не вивільняться
+    public boolean discard(long cardId) {
+        lock.lock();
+        try {
+            int index = positions.get(cardId);
+            if (index < 0) {
+                return false;
+            }
+            removeAt(index);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Повертає до count карток з найменшим due, не змінюючи купу
+    public long[] peekFirst(int count) {
+        lock.lock();
+        try {
+            touch();
+            int limit = Math.min(count, size);
+            long[] result = new long[limit];
+            int[] candidates = new int[limit + 1];
+            int candidateCount = 0;
+            if (limit > 0) {
+                candidates[candidateCount++] = 0;
+            }
+            for (int r = 0; r < limit; r++) {
+                int best = 0;
+                for (int c = 1; c < candidateCount; c++) {
+                    if (less(candidates[c], candidates[best])) {
+                        best = c;
+                    }
+                }
+                int index = candidates[best];
+                candidates[best] = candidates[--candidateCount];
+                result[r] = cardIds[index];
+                int left = 2 * index + 1;
+                if (left < size && candidateCount < candidates.length) {
+                    candidates[candidateCount++] = left;
+                }
+                if (left + 1 < size && candidateCount < candidates.length) {
+                    candidates[candidateCount++] = left + 1;
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isTruncated() {
+        return boundary != Long.MAX_VALUE;
+    }
+
+    public long memoryBytes() {
+        lock.lock();
+        try {
+            return 16L * cardIds.length + positions.memoryBytes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    private void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    // Черга повна: витісняємо найпізнішу картку або не беремо нову, якщо пізніша вона.
+    // Межа опускається нижче відкинутої картки, тож черга стає неповною і за потреби перечитає базу
+    private boolean makeRoomFor(long cardId, long due) {
+        int latest = size >>> 1;
+        for (int i = latest + 1; i < size; i++) {
+            if (less(latest, i)) {
+                latest = i;
+            }
+        }
+        if (due > dues[latest] || (due == dues[latest] && cardId > cardIds[latest])) {
+            boundary = Math.min(boundary, due - 1);
+            return false;
+        }
+        boundary = Math.min(boundary, dues[latest] - 1);
+        removeAt(latest);
+        return true;
+    }
+
+    private void removeAt(int index) {
+        positions.remove(cardIds[index]);
+        size--;
+        if (index == size) {
+            return;
+        }
+        cardIds[index] = cardIds[size];
+        dues[index] = dues[size];
+        positions.put(cardIds[index], index);
+        siftDown(index);
+        siftUp(index);
+    }
+
+    private boolean less(int i, int j) {
+        return dues[i] < dues[j] || (dues[i] == dues[j] && cardIds[i] < cardIds[j]);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(index, parent)) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            if (left < size && less(left, smallest)) {
+                smallest = left;
+            }
+            if (left + 1 < size && less(left + 1, smallest)) {
+                smallest = left + 1;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long cardId = cardIds[i];
+        long due = dues[i];
+        cardIds[i] = cardIds[j];
+        dues[i] = dues[j];
+        cardIds[j] = cardId;
+        dues[j] = due;
+        positions.put(cardIds[i], i);
+        positions.put(cardIds[j], j);
+    }
+
+    // Відкрита адресація long -> int, без боксингу
+    private static final class CardPositions {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        CardPositions(int expectedSize) {
+            allocate(Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize) * 2 - 1) << 1);
+        }
+
+        int get(long key) {
+            int slot = slot(key);
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int slot = slot(key);
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        void remove(long key) {
+            int slot = slot(key);
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    shiftDelete(slot);
+                    size--;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        long memoryBytes() {
+            return 12L * keys.length;
+        }
+
+        private void shiftDelete(int gap) {
+            int slot = gap;
+            while (true) {
+                slot = (slot + 1) & mask;
+                if (keys[slot] == EMPTY) {
+                    break;
+                }
+                int home = slot(keys[slot]);
+                if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                    keys[gap] = keys[slot];
+                    values[gap] = values[slot];
+                    gap = slot;
+                }
+            }
+            keys[gap] = EMPTY;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new int[capacity];
+            mask = capacity - 1;
+            size = 0;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.coursework.cache;
+
+import com.example.coursework.model.CardStatus;
+import com.example.coursework.model.UserProgress;
+import com.example.coursework.repository.UserProgressRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Необов'язковий in-process індекс READY карток кожного користувача, впорядкованих за due
+@Component
+public class DueQueueIndex {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final UserProgressRepository userProgressRepository;
+    private final boolean enabled;
+    private final Duration idleTimeout;
+    private final int maxUsers;
+    private final int maxEntriesPerUser;
+    private final Map<Long, DueQueue> queues = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DueQueueIndex(UserProgressRepository userProgressRepository,
+                         @Value("${learnlingua.due-queue.enabled:false}") boolean enabled,
+                         @Value("${learnlingua.due-queue.idle-timeout:15m}") Duration idleTimeout,
+                         @Value("${learnlingua.due-queue.max-users:10000}") int maxUsers,
+                         @Value("${learnlingua.due-queue.max-entries-per-user:50000}") int maxEntriesPerUser) {
+        this.userProgressRepository = userProgressRepository;
+        this.enabled = enabled;
+        this.idleTimeout = idleTimeout;
+        this.maxUsers = maxUsers;
+        this.maxEntriesPerUser = maxEntriesPerUser;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long[] peekDue(Long userId, int count) {
+        DueQueue queue = queues.get(userId);
+        if (queue == null) {
+            queue = warm(userId);
+        }
+        long[] cardIds = queue.peekFirst(count);
+        if (cardIds.length < count && queue.isTruncated()) {
+            // Прогріта частина вичерпана, а в базі можуть бути пізніші картки
+            queues.remove(userId, queue);
+            cardIds = warm(userId).peekFirst(count);
+        }
+        return cardIds;
+    }
+
+    public void reschedule(Long userId, List<UserProgress> progress) {
+        if (!enabled) {
+            return;
+        }
+        long[] cardIds = new long[progress.size()];
+        long[] dues = new long[progress.size()];
+        for (int i = 0; i < cardIds.length; i++) {
+            cardIds[i] = progress.get(i).getCard().getId();
+            dues[i] = toEpochSecond(progress.get(i).getDue());
+        }
+        afterCommit(() -> {
+            DueQueue queue = queues.get(userId);
+            if (queue != null) {
+                for (int i = 0; i < cardIds.length; i++) {
+                    queue.offer(cardIds[i], dues[i]);
+                }
+            }
+        });
+    }
+
+    public void remove(Long userId, Collection<Long> cardIds) {
+        if (!enabled || cardIds.isEmpty()) {
+            return;
+        }
+        List<Long> removed = new ArrayList<>(cardIds);
+        afterCommit(() -> {
+            DueQueue queue = queues.get(userId);
+            if (queue != null) {
+                removed.forEach(queue::remove);
+            }
+        });
+    }
+
+    // Видалена картка могла стояти в черзі будь-якого користувача
+    public void removeCard(Long cardId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> queues.values().forEach(queue -> queue.discard(cardId)));
+    }
+
+    public void evict(Long userId) {
+        queues.remove(userId);
+    }
+
+    public int activeUsers() {
+        return queues.size();
+    }
+
+    public long memoryBytes() {
+        long bytes = 0;
+        for (DueQueue queue : queues.values()) {
+            bytes += queue.memoryBytes();
+        }
+        return bytes;
+    }
+
+    @Scheduled(fixedDelayString = "${learnlingua.due-queue.sweep-interval:60000}")
+    public void evictIdle() {
+        if (!enabled || queues.isEmpty()) {
+            return;
+        }
+        long idleBefore = System.currentTimeMillis() - idleTimeout.toMillis();
+        queues.values().removeIf(queue -> queue.getLastAccessMillis() < idleBefore);
+        logger.debug("Due queues: {} active users, ~{} bytes", activeUsers(), memoryBytes());
+    }
+
+    private DueQueue warm(Long userId) {
+        List<Object[]> rows = userProgressRepository.findDueEntriesByUserIdAndStatus(
+                userId, CardStatus.READY, PageRequest.of(0, maxEntriesPerUser + 1));
+        boolean truncated = rows.size() > maxEntriesPerUser;
+        int count = truncated ? maxEntriesPerUser : rows.size();
+        long boundary = truncated ? toEpochSecond((LocalDateTime) rows.get(count - 1)[1]) : Long.MAX_VALUE;
+
+        DueQueue queue = new DueQueue(count, boundary, maxEntriesPerUser);
+        for (int i = 0; i < count; i++) {
+            Object[] row = rows.get(i);
+            queue.offer((Long) row[0], toEpochSecond((LocalDateTime) row[1]));
+        }
+
+        if (queues.size() >= maxUsers) {
+            evictLeastRecentlyUsed();
+        }
+        DueQueue existing = queues.putIfAbsent(userId, queue);
+        return existing != null ? existing : queue;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        queues.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().getLastAccessMillis()))
+                .ifPresent(entry -> queues.remove(entry.getKey(), entry.getValue()));
+    }
+
+    // Зміни в черзі мають сенс лише після успішного commit
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime == null ? Long.MAX_VALUE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
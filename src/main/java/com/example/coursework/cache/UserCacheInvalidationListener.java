@@ -0,0 +1,31 @@
+package com.example.coursework.cache;
+
+import com.example.coursework.model.Role;
+import com.example.coursework.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+// JPA listener для User і Role; Hibernate отримує його як Spring bean
+@Component
+public class UserCacheInvalidationListener {
+
+    private final CurrentUserCache currentUserCache;
+
+    public UserCacheInvalidationListener(CurrentUserCache currentUserCache) {
+        this.currentUserCache = currentUserCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof User user) {
+            currentUserCache.invalidate(user.getUsername());
+        } else if (entity instanceof Role) {
+            // Назва ролі може бути в будь-якому знімку
+            currentUserCache.invalidateAll();
+        }
+    }
+}
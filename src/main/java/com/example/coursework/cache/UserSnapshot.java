@@ -0,0 +1,63 @@
+package com.example.coursework.cache;
+
+import com.example.coursework.model.Role;
+import com.example.coursework.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Незмінний знімок користувача без пароля та зв'язків, придатний для кешування між запитами
+public final class UserSnapshot {
+
+    private final Long id;
+    private final String username;
+    private final Map<Long, String> roles;
+    private final String schedulingAlgorithm;
+
+    private UserSnapshot(Long id, String username, Map<Long, String> roles, String schedulingAlgorithm) {
+        this.id = id;
+        this.username = username;
+        this.roles = roles;
+        this.schedulingAlgorithm = schedulingAlgorithm;
+    }
+
+    public static UserSnapshot of(User user) {
+        Map<Long, String> roles = new LinkedHashMap<>();
+        if (user.getRoles() != null) {
+            user.getRoles().forEach(role -> roles.put(role.getId(), role.getName()));
+        }
+        return new UserSnapshot(user.getId(), user.getUsername(), Collections.unmodifiableMap(roles), user.getSchedulingAlgorithm());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public List<String> getRoleNames() {
+        return new ArrayList<>(roles.values());
+    }
+
+    // Відокремлена сутність: достатньо для посилань у запитах і нових рядках, але не для merge
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setSchedulingAlgorithm(schedulingAlgorithm);
+        List<Role> userRoles = new ArrayList<>(roles.size());
+        roles.forEach((roleId, name) -> {
+            Role role = new Role();
+            role.setId(roleId);
+            role.setName(name);
+            userRoles.add(role);
+        });
+        user.setRoles(userRoles);
+        return user;
+    }
+}
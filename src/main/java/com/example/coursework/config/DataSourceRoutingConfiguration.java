@@ -0,0 +1,76 @@
+package com.example.coursework.config;
+
+import com.example.coursework.jdbc.ReadWriteRoutingDataSource;
+import com.example.coursework.jdbc.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+// Вмикається, коли задано learnlingua.datasource.read.url; без нього Spring Boot створює один пул як раніше
+@Configuration
+@ConditionalOnProperty(prefix = "learnlingua.datasource.read", name = "url")
+public class DataSourceRoutingConfiguration {
+
+    // З open-in-view сесія Hibernate тримає перше з'єднання до кінця HTTP-запиту, і маршрут обирався б
+    // один раз на запит: запис після readOnly-транзакції пішов би на репліку
+    public DataSourceRoutingConfiguration(@Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("learnlingua.datasource.read.url requires spring.jpa.open-in-view=false");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("learnlingua.datasource.read.hikari")
+    public HikariDataSource readDataSource(@Value("${learnlingua.datasource.read.url}") String url,
+                                           @Value("${learnlingua.datasource.read.username:${spring.datasource.username}}") String username,
+                                           @Value("${learnlingua.datasource.read.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("read");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${learnlingua.datasource.read.read-your-writes-window:5s}") Duration window,
+            @Value("${learnlingua.datasource.read.read-your-writes-max-users:100000}") int maxUsers) {
+        return new ReadYourWritesTracker(window, maxUsers);
+    }
+
+    // Саме цей бін бачать JPA, JdbcTemplate і Flyway; Flyway працює поза readOnly-транзакцією, тож іде на primary
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("readDataSource") DataSource replica,
+                                 ReadYourWritesTracker readYourWritesTracker, MeterRegistry registry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, readYourWritesTracker, registry);
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+        // Без цього проксі при старті взяв би з'єднання, щоб дізнатися значення за замовчуванням
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return lazy;
+    }
+}
@@ -34,8 +34,9 @@ public class SecurityConfiguration {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests((authorize) -> authorize
-                        .requestMatchers("/register/**", "/index", "/css/**", "/js/**").permitAll()
-                        .requestMatchers("/api/cards/**").hasAuthority("ADMIN")
+                        .requestMatchers("/register/**", "/index", "/css/**", "/js/**", "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
+                        .requestMatchers("/api/cards/**", "/api/admin/**").hasAuthority("ADMIN")
                         .requestMatchers("/api/learn/**", "/learn", "/stats").authenticated()
                         .anyRequest().authenticated()
                 )
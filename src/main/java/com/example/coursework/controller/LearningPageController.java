@@ -1,7 +1,7 @@
 package com.example.coursework.controller;
 
+import com.example.coursework.dto.UserStatsDto;
 import com.example.coursework.model.User;
-import com.example.coursework.model.UserStats;
 import com.example.coursework.service.StatsService;
 import com.example.coursework.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,8 +27,7 @@ public class LearningPageController {
     public String statsPage(Model model) {
         User user = userService.getCurrentUser();
 
-        statsService.updateStats(user);
-        UserStats stats = statsService.getStatsForUser(user);
+        UserStatsDto stats = statsService.getStatsForUser(user);
         model.addAttribute("stats", stats);
         return "stats";
     }
@@ -0,0 +1,13 @@
+package com.example.coursework.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardImportErrorDto {
+    private long line;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.example.coursework.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CardImportReportDto {
+    private long processed;
+    private long inserted;
+    private long duplicates;
+    private long failed;
+    private int batches;
+    private long elapsedMs;
+    private List<CardImportErrorDto> errors;
+    private boolean errorsTruncated;
+}
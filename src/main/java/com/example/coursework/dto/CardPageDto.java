@@ -0,0 +1,12 @@
+package com.example.coursework.dto;
+
+import com.example.coursework.model.Card;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CardPageDto {
+    private List<Card> items;
+    private String nextCursor;
+}
@@ -0,0 +1,13 @@
+package com.example.coursework.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CardSearchPageDto {
+    private List<CardSearchResultDto> items;
+    private int page;
+    private int size;
+    private long total;
+}
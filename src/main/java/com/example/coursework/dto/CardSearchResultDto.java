@@ -0,0 +1,13 @@
+package com.example.coursework.dto;
+
+import lombok.Data;
+
+@Data
+public class CardSearchResultDto {
+    private Long id;
+    private String word;
+    private String translation;
+    private String synonyms;
+    private String type;
+    private int score;
+}
@@ -0,0 +1,11 @@
+package com.example.coursework.dto;
+
+import lombok.Data;
+
+@Data
+public class LeaderboardEntryDto {
+    private int rank;
+    private Long userId;
+    private String username;
+    private long score;
+}
@@ -0,0 +1,14 @@
+package com.example.coursework.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LeaderboardPageDto {
+    private String period;
+    private List<LeaderboardEntryDto> items;
+    private int offset;
+    private int limit;
+    private int total;
+}
@@ -0,0 +1,20 @@
+package com.example.coursework.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ProgressExportRowDto {
+    private long userId;
+    private String username;
+    private long cardId;
+    private String word;
+    private String status;
+    private int learnedLevel;
+    private double ease;
+    private int interval;
+    private int reps;
+    private LocalDateTime due;
+    private LocalDateTime lastAnswered;
+}
@@ -0,0 +1,21 @@
+package com.example.coursework.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class UserStatsDto {
+    private long totalWordsLearned;
+    private long wordsLearnedToday;
+    private long wordsLearnedThisWeek;
+    private long wordsLearnedThisMonth;
+    private LocalDate lastUpdatedDate;
+    // Коли знімок у users_stats востаннє перераховано (null, якщо ще ніколи)
+    private LocalDateTime computedAt;
+    // Є відповіді, ще не враховані в знімку; вони потраплять у нього не пізніше pendingSince + maxStalenessMs
+    private boolean recomputePending;
+    private LocalDateTime pendingSince;
+    private long maxStalenessMs;
+}
@@ -0,0 +1,103 @@
+package com.example.coursework.jdbc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+// Динамічні проксі DataSource -> Connection -> Statement: кожен execute* (і пакет executeBatch як один round trip)
+// рахується в SqlStatementCounter. Покриває і Hibernate, і JdbcTemplate
+public final class CountingDataSource {
+
+    private CountingDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, new DataSourceHandler(dataSource));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getName().equals("equals") || method.getName().equals("hashCode");
+    }
+
+    // Проксі рівний лише самому собі, як і звичайне з'єднання
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        if (method.getName().equals("equals")) {
+            return proxy == args[0];
+        }
+        return System.identityHashCode(proxy);
+    }
+
+    private record DataSourceHandler(DataSource target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            Object result = CountingDataSource.invoke(target, method, args);
+            if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                return Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(),
+                        new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+            }
+            return result;
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            Object result = CountingDataSource.invoke(target, method, args);
+            Class<?> type;
+            if (result instanceof CallableStatement) {
+                type = CallableStatement.class;
+            } else if (result instanceof PreparedStatement) {
+                type = PreparedStatement.class;
+            } else if (result instanceof Statement) {
+                type = Statement.class;
+            } else {
+                return result;
+            }
+            return Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler((Statement) result, proxy));
+        }
+    }
+
+    private record StatementHandler(Statement target, Object connection) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // getConnection() має повертати проксі, а не сире з'єднання пулу
+            if (method.getName().equals("getConnection")) {
+                return connection;
+            }
+            if (!method.getName().startsWith("execute")) {
+                return CountingDataSource.invoke(target, method, args);
+            }
+            long startedAt = System.nanoTime();
+            try {
+                return CountingDataSource.invoke(target, method, args);
+            } finally {
+                SqlStatementCounter.record(System.nanoTime() - startedAt);
+            }
+        }
+    }
+}
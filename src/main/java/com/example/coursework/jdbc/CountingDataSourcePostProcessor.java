@@ -0,0 +1,29 @@
+package com.example.coursework.jdbc;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Обгортає лише зовнішній бін dataSource: пули за маршрутизацією (primaryDataSource, readDataSource)
+// інакше рахували б кожен оператор двічі
+@Component
+public class CountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final boolean enabled;
+
+    public CountingDataSourcePostProcessor(@Value("${learnlingua.sql.counting.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+            return CountingDataSource.wrap(dataSource);
+        }
+        return bean;
+    }
+}
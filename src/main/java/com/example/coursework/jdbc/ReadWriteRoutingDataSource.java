@@ -0,0 +1,60 @@
+package com.example.coursework.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// readOnly-транзакції йдуть на репліку, решта - на primary. Рішення приймається при першому запиті
+// з'єднання, тому перед цим DataSource має стояти LazyConnectionDataSourceProxy: інакше з'єднання
+// береться в doBegin, ще до того як позначка readOnly стає видимою
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWritesTracker,
+                                      MeterRegistry registry) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.primaryConnections = registry.counter("learnlingua.datasource.routed", "target", "primary");
+        this.replicaConnections = registry.counter("learnlingua.datasource.routed", "target", "replica");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = route();
+        (route == Route.PRIMARY ? primaryConnections : replicaConnections).increment();
+        return route;
+    }
+
+    Route route() {
+        String username = ReadYourWritesTracker.currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Вікно рахується від коміту, коли зміни вже видно на primary
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWritesTracker.recordWrite(username);
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        if (username != null && readYourWritesTracker.recentlyWrote(username)) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.coursework.jdbc;
+
+import com.example.coursework.cache.TtlCache;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+// Користувачі, що нещодавно писали в primary: їхні читання йдуть туди ж, доки репліка може відставати
+public class ReadYourWritesTracker {
+
+    private final TtlCache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, int maxUsers) {
+        this.recentWriters = new TtlCache<>(maxUsers, window);
+    }
+
+    public void recordWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+    }
+
+    public boolean recentlyWrote(String username) {
+        return recentWriters.get(username) != null;
+    }
+
+    public static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.coursework.jdbc;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.*;
+
+// Після міграцій звіряє живу схему з очікуваною: таблиці, колонки, на які спираються запити, та індекси з міграцій.
+// mode: fail - не запускати застосунок, warn - лише лог, off - пропустити
+@Component
+public class SchemaVerifier {
+
+    private static final Map<String, List<String>> EXPECTED_COLUMNS = Map.of(
+            "users", List.of("id", "username", "password", "scheduling_algorithm", "progress_archived"),
+            "roles", List.of("id", "name"),
+            "users_roles", List.of("user_id", "role_id"),
+            "cards", List.of("id", "word", "sentence", "translation", "synonyms", "type"),
+            "users_progress", List.of("user_id", "card_id", "learned_level", "last_answered", "ease", "due",
+                    "interval", "reps", "stability", "difficulty", "status", "version"),
+            "users_stats", List.of("id", "user_id", "total_words_learned", "words_learned_today",
+                    "words_learned_this_week", "words_learned_this_month", "last_updated_date", "computed_at", "version"),
+            "users_daily_stats", List.of("user_id", "day", "words_learned"),
+            "stats_rollover_watermark", List.of("job", "period_day", "last_stats_id", "completed", "updated_at"),
+            "users_progress_archive", List.of("user_id", "archived_at", "row_count", "payload"),
+            "idempotency_keys", List.of("user_id", "idempotency_key", "request_hash", "response", "created_at")
+    );
+
+    private static final List<String> EXPECTED_PARTITIONED_TABLES = List.of("users_progress");
+
+    private static final List<String> EXPECTED_INDEXES = List.of(
+            "idx_users_progress_user_status_due",
+            "idx_users_progress_user_answered",
+            "uq_cards_word_type_normalized",
+            "idx_idempotency_keys_created_at"
+    );
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final JdbcTemplate jdbcTemplate;
+    private final String mode;
+
+    // FlywayMigrationInitializer у залежностях гарантує, що перевірка йде вже по мігрованій схемі
+    @Autowired
+    public SchemaVerifier(DataSource dataSource, FlywayMigrationInitializer flywayMigrationInitializer,
+                          @Value("${learnlingua.schema.verify:fail}") String mode) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.mode = mode;
+    }
+
+    @PostConstruct
+    public void verify() {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+        List<String> problems = findProblems();
+        if (problems.isEmpty()) {
+            logger.info("Schema verified: {} tables, {} indexes", EXPECTED_COLUMNS.size(), EXPECTED_INDEXES.size());
+            return;
+        }
+        String message = "Live schema differs from the expected one: " + String.join("; ", problems);
+        if ("warn".equalsIgnoreCase(mode)) {
+            logger.warn(message);
+            return;
+        }
+        throw new IllegalStateException(message);
+    }
+
+    List<String> findProblems() {
+        Map<String, Set<String>> columns = new HashMap<>();
+        jdbcTemplate.query("SELECT table_name, column_name FROM information_schema.columns WHERE table_schema = current_schema()",
+                (rs, rowNum) -> columns.computeIfAbsent(rs.getString(1), table -> new HashSet<>()).add(rs.getString(2)));
+        Set<String> indexes = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class));
+        Set<String> partitioned = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+                "WHERE c.relnamespace = current_schema()::regnamespace", String.class));
+
+        List<String> problems = new ArrayList<>();
+        EXPECTED_COLUMNS.forEach((table, expected) -> {
+            Set<String> actual = columns.get(table);
+            if (actual == null) {
+                problems.add("missing table " + table);
+                return;
+            }
+            for (String column : expected) {
+                if (!actual.contains(column)) {
+                    problems.add("missing column " + table + "." + column);
+                }
+            }
+        });
+        for (String index : EXPECTED_INDEXES) {
+            if (!indexes.contains(index)) {
+                problems.add("missing index " + index);
+            }
+        }
+        for (String table : EXPECTED_PARTITIONED_TABLES) {
+            if (!partitioned.contains(table)) {
+                problems.add("table " + table + " is not partitioned");
+            }
+        }
+        Collections.sort(problems);
+        return problems;
+    }
+}
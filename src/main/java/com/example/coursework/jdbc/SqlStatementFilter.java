@@ -0,0 +1,59 @@
+package com.example.coursework.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Рахує SQL кожного HTTP-запиту; запити понад поріг логуються як можливий N+1
+@Component
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    @Autowired
+    public SqlStatementFilter(MeterRegistry registry, @Value("${learnlingua.sql.warn-threshold:20}") int warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            filterChain.doFilter(request, response);
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("learnlingua.sql.statements")
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(scope.getStatements());
+            Timer.builder("learnlingua.sql.time")
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(scope.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+            if (scope.getStatements() > warnThreshold) {
+                logger.warn("{} {} issued {} SQL statements (threshold {})", request.getMethod(), uri,
+                        scope.getStatements(), warnThreshold);
+            }
+        }
+    }
+}
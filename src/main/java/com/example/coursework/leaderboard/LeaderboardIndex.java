@@ -0,0 +1,180 @@
+package com.example.coursework.leaderboard;
+
+import com.example.coursework.model.UserStats;
+import com.example.coursework.repository.UserStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Рейтинги користувачів у пам'яті по кожному періоду; будуються з users_stats при старті
+// і оновлюються поштучно після коміту змін статистики
+@Component
+public class LeaderboardIndex {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final UserStatsRepository userStatsRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Одна перебудова за раз; ReentrantLock, бо всередині JDBC (див. закріплення віртуальних потоків)
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Map<LeaderboardPeriod, RankedSkipList> boards = emptyBoards();
+    // Оновлення, що прийшли під час перебудови; застосовуються до нових рейтингів після заміни
+    private List<Runnable> replayDuringRebuild;
+
+    @Autowired
+    public LeaderboardIndex(UserStatsRepository userStatsRepository) {
+        this.userStatsRepository = userStatsRepository;
+    }
+
+    // Повна перебудова поза блокуванням; читачі бачать старі рейтинги до заміни
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildBoards();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildBoards() {
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            replayDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<LeaderboardPeriod, RankedSkipList> rebuilt;
+        try {
+            rebuilt = load();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                replayDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            boards = rebuilt;
+            replayDuringRebuild.forEach(Runnable::run);
+            replayDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Leaderboards rebuilt for {} users in {} ms",
+                rebuilt.get(LeaderboardPeriod.TOTAL).size(), System.currentTimeMillis() - startedAt);
+    }
+
+    public void update(Long userId, UserStats stats) {
+        long[] scores = new long[LeaderboardPeriod.values().length];
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            scores[period.ordinal()] = period.scoreOf(stats);
+        }
+        Runnable apply = () -> {
+            for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+                boards.get(period).put(userId, scores[period.ordinal()]);
+            }
+        };
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                apply.run();
+                if (replayDuringRebuild != null) {
+                    replayDuringRebuild.add(apply);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<RankedSkipList.Entry> top(LeaderboardPeriod period, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return boards.get(period).range(offset + 1, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RankedSkipList.Entry find(LeaderboardPeriod period, Long userId) {
+        lock.readLock().lock();
+        try {
+            return boards.get(period).find(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(LeaderboardPeriod period) {
+        lock.readLock().lock();
+        try {
+            return boards.get(period).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<LeaderboardPeriod, RankedSkipList> load() {
+        Map<LeaderboardPeriod, RankedSkipList> loaded = emptyBoards();
+        long afterId = 0;
+        List<UserStats> page;
+        do {
+            page = userStatsRepository.findPageAfter(afterId, PageRequest.of(0, PAGE_SIZE));
+            for (UserStats stats : page) {
+                put(loaded, stats.getUser().getId(), stats);
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+        return loaded;
+    }
+
+    private static void put(Map<LeaderboardPeriod, RankedSkipList> boards, Long userId, UserStats stats) {
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            boards.get(period).put(userId, period.scoreOf(stats));
+        }
+    }
+
+    private static Map<LeaderboardPeriod, RankedSkipList> emptyBoards() {
+        Map<LeaderboardPeriod, RankedSkipList> boards = new EnumMap<>(LeaderboardPeriod.class);
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            boards.put(period, new RankedSkipList());
+        }
+        return boards;
+    }
+
+    // Рейтинг має відображати лише закомічену статистику
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
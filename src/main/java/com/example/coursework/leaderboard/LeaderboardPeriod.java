@@ -0,0 +1,31 @@
+package com.example.coursework.leaderboard;
+
+import com.example.coursework.model.UserStats;
+
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+public enum LeaderboardPeriod {
+    TOTAL(UserStats::getTotalWordsLearned),
+    TODAY(UserStats::getWordsLearnedToday),
+    WEEK(UserStats::getWordsLearnedThisWeek),
+    MONTH(UserStats::getWordsLearnedThisMonth);
+
+    private final ToLongFunction<UserStats> score;
+
+    LeaderboardPeriod(ToLongFunction<UserStats> score) {
+        this.score = score;
+    }
+
+    public long scoreOf(UserStats stats) {
+        return score.applyAsLong(stats);
+    }
+
+    public static LeaderboardPeriod from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown leaderboard period: " + value);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.coursework.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Індексований skip list: порядок за score спаданням, далі за userId; span кожного посилання
+// дає ранг за O(log n) без обходу. Не потокобезпечний - синхронізацію робить LeaderboardIndex
+public class RankedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node head = new Node(0, 0, MAX_LEVEL);
+    private final Map<Long, Long> scores = new HashMap<>();
+    private int level = 1;
+    private int size;
+
+    public record Entry(int rank, long userId, long score) {
+    }
+
+    public void put(long userId, long score) {
+        Long previous = scores.put(userId, score);
+        if (previous != null) {
+            if (previous == score) {
+                return;
+            }
+            delete(userId, previous);
+        }
+        insert(userId, score);
+    }
+
+    public void remove(long userId) {
+        Long previous = scores.remove(userId);
+        if (previous != null) {
+            delete(userId, previous);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Ранг з 1; null, якщо користувача немає
+    public Entry find(long userId) {
+        Long score = scores.get(userId);
+        if (score == null) {
+            return null;
+        }
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, userId) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && x.userId == userId) {
+                return new Entry(rank, userId, score);
+            }
+        }
+        return null;
+    }
+
+    // До count записів, починаючи з рангу fromRank (з 1)
+    public List<Entry> range(int fromRank, int count) {
+        List<Entry> result = new ArrayList<>(Math.max(0, Math.min(count, size - fromRank + 1)));
+        Node x = nodeAt(fromRank);
+        for (int rank = fromRank; x != null && result.size() < count; rank++) {
+            result.add(new Entry(rank, x.userId, x.score));
+            x = x.next[0];
+        }
+        return result;
+    }
+
+    private Node nodeAt(int rank) {
+        if (rank < 1 || rank > size) {
+            return null;
+        }
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private void insert(long userId, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], score, userId) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        x = new Node(userId, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            x.next[i] = update[i].next[i];
+            update[i].next[i] = x;
+            x.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    private void delete(long userId, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, userId) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        x = x.next[0];
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    // Від'ємне, якщо node стоїть перед (score, userId)
+    private static int compare(Node node, long score, long userId) {
+        if (node.score != score) {
+            return node.score > score ? -1 : 1;
+        }
+        return Long.compare(node.userId, userId);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+
+        private final long userId;
+        private final long score;
+        private final Node[] next;
+        private final int[] span;
+
+        Node(long userId, long score, int level) {
+            this.userId = userId;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
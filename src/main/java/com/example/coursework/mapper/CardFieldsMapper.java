@@ -0,0 +1,45 @@
+package com.example.coursework.mapper;
+
+import com.example.coursework.model.Card;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Проєкція картки на підмножину полів для списків і NDJSON
+@Component
+public class CardFieldsMapper {
+
+    public static final Set<String> ALL_FIELDS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(List.of("id", "word", "sentence", "translation", "synonyms", "type")));
+
+    public Set<String> resolveFields(Collection<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return ALL_FIELDS;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : requested) {
+            String name = field.trim();
+            if (!ALL_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown card field: " + name);
+            }
+            fields.add(name);
+        }
+        return fields;
+    }
+
+    public Map<String, Object> project(Card card, Set<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> values.put(field, card.getId());
+                case "word" -> values.put(field, card.getWord());
+                case "sentence" -> values.put(field, card.getSentence());
+                case "translation" -> values.put(field, card.getTranslation());
+                case "synonyms" -> values.put(field, card.getSynonyms());
+                case "type" -> values.put(field, card.getType());
+                default -> throw new IllegalArgumentException("Unknown card field: " + field);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.coursework.metrics;
+
+import com.example.coursework.cache.CurrentUserCache;
+import com.example.coursework.cache.DueQueueIndex;
+import com.example.coursework.cache.TtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    private final CurrentUserCache currentUserCache;
+    private final DueQueueIndex dueQueueIndex;
+
+    @Autowired
+    public CacheMetrics(CurrentUserCache currentUserCache, DueQueueIndex dueQueueIndex) {
+        this.currentUserCache = currentUserCache;
+        this.dueQueueIndex = dueQueueIndex;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TtlCache<?, ?> snapshots = currentUserCache.getSnapshots();
+        Gauge.builder("learnlingua.user-cache.size", snapshots, TtlCache::size).register(registry);
+        FunctionCounter.builder("learnlingua.user-cache.requests", snapshots, TtlCache::hitCount)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("learnlingua.user-cache.requests", snapshots, TtlCache::missCount)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("learnlingua.user-cache.evictions", snapshots, TtlCache::evictionCount).register(registry);
+
+        Gauge.builder("learnlingua.due-queue.users", dueQueueIndex, DueQueueIndex::activeUsers).register(registry);
+        Gauge.builder("learnlingua.due-queue.memory", dueQueueIndex, DueQueueIndex::memoryBytes)
+                .baseUnit("bytes").register(registry);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.coursework.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Доменні метрики навчального циклу; HTTP-таймери, Hibernate та Hikari реєструє Spring Boot
+@Component
+public class LearningMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter decksAssembled;
+    private final DistributionSummary cardsPerDeck;
+    private final Counter correctAnswers;
+    private final Counter incorrectAnswers;
+
+    @Autowired
+    public LearningMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.decksAssembled = Counter.builder("learnlingua.decks.assembled")
+                .description("New decks built from READY and new cards")
+                .register(registry);
+        this.cardsPerDeck = DistributionSummary.builder("learnlingua.deck.cards")
+                .description("Cards in each assembled deck")
+                .register(registry);
+        this.correctAnswers = Counter.builder("learnlingua.answers.processed")
+                .tag("correct", "true")
+                .register(registry);
+        this.incorrectAnswers = Counter.builder("learnlingua.answers.processed")
+                .tag("correct", "false")
+                .register(registry);
+    }
+
+    public void deckAssembled(int cards) {
+        decksAssembled.increment();
+        cardsPerDeck.record(cards);
+    }
+
+    public void answersProcessed(int correct, int incorrect) {
+        correctAnswers.increment(correct);
+        incorrectAnswers.increment(incorrect);
+    }
+
+    // source: answer - інкрементально після відповіді, reconcile - повний перерахунок
+    public void statsRecomputed(String source) {
+        registry.counter("learnlingua.stats.recomputations", "source", source).increment();
+    }
+
+    // Час окремих етапів запиту, щоб бачити, яка частина /api/learn повільна
+    public <T> T timePhase(String phase, Supplier<T> action) {
+        return phaseTimer(phase).record(action);
+    }
+
+    public void timePhase(String phase, Runnable action) {
+        phaseTimer(phase).record(action);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("learnlingua.learning.phase")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
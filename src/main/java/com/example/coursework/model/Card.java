@@ -3,12 +3,17 @@ package com.example.coursework.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
+// Каталог змінюється лише через адмінський CardController, тому картки живуть у кеші другого рівня
 @Entity
 @Table(name = "cards")
 @Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cards")
 public class Card {
 
     @Id
@@ -1,5 +1,6 @@
 package com.example.coursework.model;
 
+import com.example.coursework.cache.UserCacheInvalidationListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -9,6 +10,7 @@ import java.util.List;
 @Entity
 @Table(name = "roles")
 @Data
+@EntityListeners(UserCacheInvalidationListener.class)
 public class Role {
 
     @Id
@@ -0,0 +1,28 @@
+package com.example.coursework.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Прогрес нічного переходу лічильників: до якого users_stats.id дійшли за periodDay
+@Entity
+@Table(name = "stats_rollover_watermark")
+@Data
+public class StatsRolloverWatermark {
+
+    @Id
+    private String job;
+
+    @Column(name = "period_day", nullable = false)
+    private LocalDate periodDay;
+
+    @Column(name = "last_stats_id", nullable = false)
+    private long lastStatsId;
+
+    private boolean completed;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
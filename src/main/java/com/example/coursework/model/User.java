@@ -1,5 +1,6 @@
 package com.example.coursework.model;
 
+import com.example.coursework.cache.UserCacheInvalidationListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -10,6 +11,7 @@ import java.util.List;
 @Entity
 @Table(name = "users")
 @Data
+@EntityListeners(UserCacheInvalidationListener.class)
 public class User {
 
     @Id
@@ -31,6 +33,14 @@ public class User {
                     name = "role_id", referencedColumnName = "id"))
     private Collection<Role> roles;
 
+    // null - алгоритм за замовчуванням (learnlingua.scheduling.default-algorithm)
+    @Column(name = "scheduling_algorithm")
+    private String schedulingAlgorithm;
+
+    // Прогрес перенесено в users_progress_archive; повертається при наступному getCardsForLearning
+    @Column(name = "progress_archived", nullable = false)
+    private boolean progressArchived;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     @JsonIgnore
     private List<UserProgress> progress;
@@ -0,0 +1,16 @@
+package com.example.coursework.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Table(name = "users_daily_stats")
+@Data
+public class UserDailyStats {
+
+    @EmbeddedId
+    private UserDayId id;
+
+    @Column(name = "words_learned", nullable = false)
+    private long wordsLearned;
+}
@@ -0,0 +1,35 @@
+package com.example.coursework.model;
+
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class UserDayId implements Serializable {
+
+    private Long userId;
+    private LocalDate day;
+
+    public UserDayId() {
+    }
+
+    public UserDayId(Long userId, LocalDate day) {
+        this.userId = userId;
+        this.day = day;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserDayId that = (UserDayId) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(day, that.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, day);
+    }
+}
@@ -2,12 +2,14 @@ package com.example.coursework.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users_progress")
 @Data
-public class UserProgress {
+public class UserProgress implements Persistable<UserCardId> {
 
     @EmbeddedId
     private UserCardId id;
@@ -33,10 +35,22 @@ public class UserProgress {
     private int interval;
     private int reps;
 
+    // Стан FSRS; null, доки картку не планували цим алгоритмом
+    private Double stability;
+    private Double difficulty;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private CardStatus status;
 
+    // Оптимістичне блокування: паралельні відповіді на ту саму колоду не застосовуються двічі
+    @Version
+    private long version;
+
+    // Дозволяє saveAll() робити persist без попереднього SELECT для нових рядків
+    @Transient
+    private boolean newEntity;
+
     // Default constructor for JPA
     public UserProgress() {
     }
@@ -52,6 +66,18 @@ public class UserProgress {
         this.interval = 1;
         this.reps = 0;
         this.status = CardStatus.IN_DECK;
+        this.newEntity = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.newEntity = false;
     }
 
     @Override
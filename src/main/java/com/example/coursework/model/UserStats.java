@@ -1,9 +1,11 @@
 package com.example.coursework.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users_stats")
@@ -16,6 +18,7 @@ public class UserStats {
 
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
     private User user;
 
     private long totalWordsLearned;
@@ -23,4 +26,9 @@ public class UserStats {
     private long wordsLearnedThisWeek;
     private long wordsLearnedThisMonth;
     private LocalDate lastUpdatedDate;
+    // Момент останнього запису знімка; відмінний від lastUpdatedDate, який лише відмічає день перерахунку періодів
+    private LocalDateTime computedAt;
+
+    @Version
+    private long version;
 }
\ No newline at end of file
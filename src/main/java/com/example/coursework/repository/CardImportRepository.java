@@ -0,0 +1,61 @@
+package com.example.coursework.repository;
+
+import com.example.coursework.model.Card;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Card генерує id через IDENTITY, тому Hibernate не батчить вставки - масовий імпорт іде напряму через JDBC
+@Repository
+public class CardImportRepository {
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('cards', 'id')) FROM generate_series(1, ?)";
+    private static final String EXISTING_WORD_TYPES_SQL =
+            "SELECT word, type FROM cards WHERE lower(trim(word)) = ANY (?)";
+    private static final String INSERT_CARD_SQL =
+            "INSERT INTO cards (id, word, sentence, translation, synonyms, type) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (lower(trim(word)), lower(trim(type))) DO NOTHING";
+    private static final String EXISTING_IDS_SQL =
+            "SELECT id FROM cards WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CardImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Один запит на весь батч замість round trip на кожен id
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, count);
+    }
+
+    public List<String[]> findExistingWordTypes(Collection<String> normalizedWords) {
+        return jdbcTemplate.query(EXISTING_WORD_TYPES_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", normalizedWords.toArray())),
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)});
+    }
+
+    // Картку, яку паралельний імпорт уже вставив, пропускає унікальний індекс. Лічильники батчу з
+    // reWriteBatchedInserts не кажуть, які рядки вставлені, тож перевіряємо виділені id - чужий рядок їх мати не може
+    public List<Card> insertBatch(List<Card> cards) {
+        jdbcTemplate.batchUpdate(INSERT_CARD_SQL, cards, cards.size(), (ps, card) -> {
+            ps.setLong(1, card.getId());
+            ps.setString(2, card.getWord());
+            ps.setString(3, card.getSentence());
+            ps.setString(4, card.getTranslation());
+            ps.setString(5, card.getSynonyms());
+            ps.setString(6, card.getType());
+        });
+        Set<Long> inserted = new HashSet<>(jdbcTemplate.query(EXISTING_IDS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", cards.stream().map(Card::getId).toArray())),
+                (rs, rowNum) -> rs.getLong(1)));
+        return cards.stream().filter(card -> inserted.contains(card.getId())).toList();
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.coursework.repository;
 
 import com.example.coursework.model.Card;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CardRepository extends JpaRepository<Card, Long> {
 
@@ -12,6 +17,31 @@ public interface CardRepository extends JpaRepository<Card, Long> {
 
     List<Card> findByTypeIgnoreCaseContaining(String type);
 
-    @Query("SELECT c FROM Card c WHERE c.id NOT IN (SELECT up.card.id FROM UserProgress up WHERE up.user.id = :userId)")
-    List<Card> findNewCardsForUser(Long userId);
+    // Keyset-пагінація: pattern вже екранований (escape-символ '!')
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c FROM Card c WHERE lower(c.word) LIKE lower(:pattern) ESCAPE '!' AND c.id > :afterId ORDER BY c.id")
+    List<Card> findByWordLikeAfter(String pattern, Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c FROM Card c WHERE lower(c.type) LIKE lower(:pattern) ESCAPE '!' AND c.id > :afterId ORDER BY c.id")
+    List<Card> findByTypeLikeAfter(String pattern, Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Card c WHERE lower(c.word) LIKE lower(:pattern) ESCAPE '!' ORDER BY c.id")
+    Stream<Card> streamByWordLike(String pattern);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Card c WHERE lower(c.type) LIKE lower(:pattern) ESCAPE '!' ORDER BY c.id")
+    Stream<Card> streamByTypeLike(String pattern);
+
+    @Query("SELECT c FROM Card c WHERE NOT EXISTS " +
+            "(SELECT 1 FROM UserProgress up WHERE up.card = c AND up.user.id = :userId) " +
+            "ORDER BY c.id")
+    List<Card> findNewCardsForUser(Long userId, Pageable pageable);
 }
@@ -0,0 +1,42 @@
+package com.example.coursework.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class IdempotencyKeyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public IdempotencyKeyRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Пара (request_hash, response) або порожньо, якщо ключ ще не використовувався
+    public Optional<String[]> find(Long userId, String idempotencyKey) {
+        List<String[]> rows = jdbcTemplate.query(
+                "SELECT request_hash, response::text FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ?",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)},
+                userId, idempotencyKey);
+        return rows.stream().findFirst();
+    }
+
+    // Звичайний INSERT: якщо той самий ключ паралельно записав інший вузол, DuplicateKeyException відкотить транзакцію
+    public void insert(Long userId, String idempotencyKey, String requestHash, String response, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, response, created_at) " +
+                        "VALUES (?, ?, ?, ?::jsonb, ?)",
+                userId, idempotencyKey, requestHash, response, Timestamp.valueOf(createdAt));
+    }
+
+    public int deleteCreatedBefore(LocalDateTime createdBefore) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?", Timestamp.valueOf(createdBefore));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.coursework.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class ProgressArchiveRepository {
+
+    // Один оператор: вибір неактивних, DELETE з гарячої таблиці, запис в архів і позначка в users.
+    // Рядки, вставлені паралельно після знімка, не видаляються і лишаються в гарячій таблиці
+    private static final String ARCHIVE_SQL =
+            "WITH inactive AS (" +
+            "  SELECT user_id FROM users_progress WHERE user_id > ? AND user_id <= ? " +
+            "  GROUP BY user_id HAVING max(last_answered) < ?" +
+            "), moved AS (" +
+            "  DELETE FROM users_progress up USING inactive i WHERE up.user_id = i.user_id " +
+            "  RETURNING up.user_id, up.card_id, up.learned_level, up.last_answered, up.ease, up.due, " +
+            "  up.\"interval\", up.reps, up.stability, up.difficulty, up.status" +
+            "), archived AS (" +
+            "  INSERT INTO users_progress_archive (user_id, archived_at, row_count, payload) " +
+            "  SELECT user_id, now(), count(*), jsonb_agg(jsonb_build_array(card_id, learned_level, last_answered, " +
+            "  ease, due, \"interval\", reps, stability, difficulty, status)) FROM moved GROUP BY user_id " +
+            "  ON CONFLICT (user_id) DO UPDATE SET archived_at = EXCLUDED.archived_at, " +
+            "  row_count = users_progress_archive.row_count + EXCLUDED.row_count, " +
+            "  payload = users_progress_archive.payload || EXCLUDED.payload " +
+            "  RETURNING user_id, row_count" +
+            ") " +
+            "UPDATE users u SET progress_archived = true FROM archived a WHERE u.id = a.user_id RETURNING a.user_id, a.row_count";
+
+    // Картки, видалені з каталогу за час архівації, пропускаються; новіші гарячі рядки мають пріоритет.
+    // Повертає (рядків архіву видалено, рядків прогресу вставлено); для неархівованого користувача - один пошук за PK
+    private static final String REHYDRATE_SQL =
+            "WITH restored AS (DELETE FROM users_progress_archive WHERE user_id = ? RETURNING payload), " +
+            "inserted AS (" +
+            "  INSERT INTO users_progress (user_id, card_id, learned_level, last_answered, ease, due, \"interval\", " +
+            "  reps, stability, difficulty, status) " +
+            "  SELECT ?, (e->>0)::bigint, (e->>1)::int, (e->>2)::timestamp, (e->>3)::float8, (e->>4)::timestamp, " +
+            "  (e->>5)::int, (e->>6)::int, (e->>7)::float8, (e->>8)::float8, e->>9 " +
+            "  FROM restored r CROSS JOIN LATERAL jsonb_array_elements(r.payload) e " +
+            "  WHERE EXISTS (SELECT 1 FROM cards c WHERE c.id = (e->>0)::bigint) " +
+            "  ON CONFLICT (user_id, card_id) DO NOTHING RETURNING 1" +
+            ") " +
+            "SELECT (SELECT count(*) FROM restored), (SELECT count(*) FROM inserted)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProgressArchiveRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Пари (user_id, рядків в архіві) для кожного заархівованого користувача з діапазону (afterUserId, upToUserId]
+    public List<long[]> archiveInactive(long afterUserId, long upToUserId, LocalDateTime inactiveBefore) {
+        return jdbcTemplate.query(ARCHIVE_SQL, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                afterUserId, upToUserId, Timestamp.valueOf(inactiveBefore));
+    }
+
+    // Кількість повернених рядків або -1, якщо архіву в користувача немає
+    public int rehydrate(Long userId) {
+        long[] counts = jdbcTemplate.queryForObject(REHYDRATE_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, userId, userId);
+        if (counts[0] == 0) {
+            return -1;
+        }
+        jdbcTemplate.update("UPDATE users SET progress_archived = false WHERE id = ?", userId);
+        return (int) counts[1];
+    }
+}
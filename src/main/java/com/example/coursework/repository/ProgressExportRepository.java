@@ -0,0 +1,94 @@
+package com.example.coursework.repository;
+
+import com.example.coursework.dto.ProgressExportRowDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Forward-only курсор з фіксованим fetch size: PostgreSQL тримає курсор лише всередині транзакції,
+// тому викликати з @Transactional, інакше драйвер вичитає весь результат у пам'ять
+@Repository
+public class ProgressExportRepository {
+
+    // Заархівований прогрес розгортається з jsonb у ті самі колонки; гарячий рядок з тим самим ключем має пріоритет,
+    // як і під час повернення з архіву, тож пара (user_id, card_id) лишається унікальною
+    private static final String SELECT_PROGRESS_SQL =
+            "SELECT p.user_id, u.username, p.card_id, c.word, p.status, p.learned_level, p.ease, " +
+            "p.\"interval\", p.reps, p.due, p.last_answered " +
+            "FROM (" +
+            "  SELECT up.user_id, up.card_id, up.status, up.learned_level, up.ease, up.\"interval\", up.reps, " +
+            "  up.due, up.last_answered FROM users_progress up " +
+            "  UNION ALL " +
+            "  SELECT a.user_id, (e->>0)::bigint, e->>9, (e->>1)::int, (e->>3)::float8, (e->>5)::int, (e->>6)::int, " +
+            "  (e->>4)::timestamp, (e->>2)::timestamp " +
+            "  FROM users_progress_archive a CROSS JOIN LATERAL jsonb_array_elements(a.payload) e " +
+            "  WHERE NOT EXISTS (SELECT 1 FROM users_progress h " +
+            "  WHERE h.user_id = a.user_id AND h.card_id = (e->>0)::bigint)" +
+            ") p " +
+            "JOIN users u ON u.id = p.user_id " +
+            "JOIN cards c ON c.id = p.card_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProgressExportRepository(DataSource dataSource,
+                                    @Value("${learnlingua.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    // Порядок (user_id, card_id) стабільний, тож останній виданий рядок - це курсор для продовження
+    public void streamProgress(Long userId, LocalDateTime since, Long afterUserId, Long afterCardId,
+                               Consumer<ProgressExportRowDto> consumer) {
+        StringBuilder sql = new StringBuilder(SELECT_PROGRESS_SQL).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (userId != null) {
+            sql.append(" AND p.user_id = ?");
+            args.add(userId);
+        }
+        if (since != null) {
+            sql.append(" AND p.last_answered >= ?");
+            args.add(Timestamp.valueOf(since));
+        }
+        if (afterUserId != null && afterCardId != null) {
+            sql.append(" AND (p.user_id, p.card_id) > (?, ?)");
+            args.add(afterUserId);
+            args.add(afterCardId);
+        }
+        sql.append(" ORDER BY p.user_id, p.card_id");
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            consumer.accept(mapRow(rs));
+        }, args.toArray());
+    }
+
+    private static ProgressExportRowDto mapRow(ResultSet rs) throws SQLException {
+        ProgressExportRowDto row = new ProgressExportRowDto();
+        row.setUserId(rs.getLong("user_id"));
+        row.setUsername(rs.getString("username"));
+        row.setCardId(rs.getLong("card_id"));
+        row.setWord(rs.getString("word"));
+        row.setStatus(rs.getString("status"));
+        row.setLearnedLevel(rs.getInt("learned_level"));
+        row.setEase(rs.getDouble("ease"));
+        row.setInterval(rs.getInt("interval"));
+        row.setReps(rs.getInt("reps"));
+        row.setDue(toLocalDateTime(rs.getTimestamp("due")));
+        row.setLastAnswered(toLocalDateTime(rs.getTimestamp("last_answered")));
+        return row;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
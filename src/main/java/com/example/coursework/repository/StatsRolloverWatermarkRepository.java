@@ -0,0 +1,7 @@
+package com.example.coursework.repository;
+
+import com.example.coursework.model.StatsRolloverWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StatsRolloverWatermarkRepository extends JpaRepository<StatsRolloverWatermark, String> {
+}
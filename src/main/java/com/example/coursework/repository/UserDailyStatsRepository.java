@@ -0,0 +1,37 @@
+package com.example.coursework.repository;
+
+import com.example.coursework.model.UserDailyStats;
+import com.example.coursework.model.UserDayId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+
+public interface UserDailyStatsRepository extends JpaRepository<UserDailyStats, UserDayId> {
+
+    @Modifying
+    @Query(value = "INSERT INTO users_daily_stats (user_id, day, words_learned) VALUES (:userId, :day, :delta) " +
+            "ON CONFLICT (user_id, day) DO UPDATE SET words_learned = users_daily_stats.words_learned + EXCLUDED.words_learned",
+            nativeQuery = true)
+    void addWordsLearned(Long userId, LocalDate day, long delta);
+
+    @Query("SELECT COALESCE(SUM(d.wordsLearned), 0) FROM UserDailyStats d " +
+            "WHERE d.id.userId = :userId AND d.id.day >= :from")
+    long sumWordsLearnedSince(Long userId, LocalDate from);
+
+    @Modifying
+    @Query(value = "DELETE FROM users_daily_stats WHERE user_id = :userId", nativeQuery = true)
+    void deleteAllForUser(Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO users_daily_stats (user_id, day, words_learned) " +
+            "SELECT up.user_id, CAST(up.last_answered AS date), COUNT(*) FROM users_progress up " +
+            "WHERE up.user_id = :userId AND up.last_answered IS NOT NULL " +
+            "GROUP BY up.user_id, CAST(up.last_answered AS date)",
+            nativeQuery = true)
+    int rebuildForUser(Long userId);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users_daily_stats)", nativeQuery = true)
+    boolean existsAny();
+}
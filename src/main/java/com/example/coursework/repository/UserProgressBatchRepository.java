@@ -0,0 +1,11 @@
+package com.example.coursework.repository;
+
+import com.example.coursework.model.UserProgress;
+
+import java.util.List;
+
+public interface UserProgressBatchRepository {
+
+    // Записує стан повторення одним JDBC batch і повертає кількість виконаних батчів (мережевих обмінів з базою)
+    int batchUpdateProgress(List<UserProgress> progress);
+}
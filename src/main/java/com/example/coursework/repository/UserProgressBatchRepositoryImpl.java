@@ -0,0 +1,71 @@
+package com.example.coursework.repository;
+
+import com.example.coursework.model.UserProgress;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+public class UserProgressBatchRepositoryImpl implements UserProgressBatchRepository {
+
+    private static final String UPDATE_PROGRESS_SQL = "UPDATE users_progress " +
+            "SET learned_level = ?, last_answered = ?, ease = ?, due = ?, \"interval\" = ?, reps = ?, " +
+            "stability = ?, difficulty = ?, status = ?, version = version + 1 " +
+            "WHERE user_id = ? AND card_id = ? AND version = ?";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UserProgressBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int batchUpdateProgress(List<UserProgress> progress) {
+        if (progress.isEmpty()) {
+            return 0;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_PROGRESS_SQL, progress, progress.size(), (ps, up) -> {
+            ps.setInt(1, up.getLearnedLevel());
+            ps.setObject(2, up.getLastAnswered());
+            ps.setDouble(3, up.getEase());
+            ps.setObject(4, up.getDue());
+            ps.setInt(5, up.getInterval());
+            ps.setInt(6, up.getReps());
+            ps.setObject(7, up.getStability(), Types.DOUBLE);
+            ps.setObject(8, up.getDifficulty(), Types.DOUBLE);
+            ps.setString(9, up.getStatus().name());
+            ps.setLong(10, up.getUser().getId());
+            ps.setLong(11, up.getCard().getId());
+            ps.setLong(12, up.getVersion());
+        });
+
+        // Рядки вже записані через JDBC, тому прибираємо їх з persistence context, щоб не було повторного flush
+        progress.forEach(entityManager::detach);
+
+        int rows = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // 0 - рядок уже змінила інша транзакція; виняток відкочує весь батч
+                if (count == 0) {
+                    UserProgress stale = progress.get(rows);
+                    throw new OptimisticLockingFailureException("users_progress row (" + stale.getUser().getId() +
+                            ", " + stale.getCard().getId() + ") was modified concurrently");
+                }
+                rows++;
+            }
+        }
+        progress.forEach(up -> up.setVersion(up.getVersion() + 1));
+        logger.debug("Updated {} users_progress rows in {} JDBC batch(es)", rows, counts.length);
+        return counts.length;
+    }
+}
@@ -1,14 +1,17 @@
 package com.example.coursework.repository;
 
 import com.example.coursework.model.*;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface UserProgressRepository extends JpaRepository<UserProgress, UserCardId> {
+public interface UserProgressRepository extends JpaRepository<UserProgress, UserCardId>, UserProgressBatchRepository {
 
     Optional<UserProgress> findByUserAndCard(User user, Card card);
 
@@ -19,8 +22,31 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, User
             "WHERE up.user = :user AND up.status = :status")
     List<UserProgress> findUserProgressWithCardByUserAndStatus(User user, CardStatus status);
 
+    @Query("SELECT up FROM UserProgress up " +
+            "JOIN FETCH up.card " +
+            "WHERE up.user = :user AND up.status = :status " +
+            "ORDER BY up.due")
+    List<UserProgress> findUserProgressWithCardByUserAndStatusOrderByDue(User user, CardStatus status, Pageable pageable);
+
+    @Query("SELECT up FROM UserProgress up " +
+            "JOIN FETCH up.card " +
+            "WHERE up.user = :user AND up.status = :status AND up.card.id IN :cardIds")
+    List<UserProgress> findUserProgressWithCardByUserAndStatusAndCardIds(User user, CardStatus status, Collection<Long> cardIds);
+
+    @Query("SELECT up.card.id, up.due FROM UserProgress up " +
+            "WHERE up.user.id = :userId AND up.status = :status " +
+            "ORDER BY up.due")
+    List<Object[]> findDueEntriesByUserIdAndStatus(Long userId, CardStatus status, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserProgress up SET up.status = :status, up.version = up.version + 1 " +
+            "WHERE up.id.userId = :userId AND up.id.cardId IN :cardIds")
+    int updateStatusForCards(Long userId, Collection<Long> cardIds, CardStatus status);
+
     @Query("SELECT up FROM UserProgress up WHERE up.user.id = :userId AND up.card.id = :cardId")
     Optional<UserProgress> findByUserAndCardId(Long userId, Long cardId);
 
     long countByUserAndStatusAndLastAnsweredAfter(User user, CardStatus cardStatus, LocalDateTime localDateTime);
+
+    long countByUserIdAndLastAnsweredIsNotNull(Long userId);
 }
\ No newline at end of file
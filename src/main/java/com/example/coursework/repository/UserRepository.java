@@ -1,10 +1,24 @@
 package com.example.coursework.repository;
 
 import com.example.coursework.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
+    // Без користувачів, чий прогрес зараз в архіві
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND u.progressArchived = false ORDER BY u.id")
+    List<Long> findActiveIdsAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT u.id, u.username FROM User u WHERE u.id IN :ids")
+    List<Object[]> findUsernamesByIds(Collection<Long> ids);
 }
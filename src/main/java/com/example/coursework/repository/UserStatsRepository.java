@@ -2,10 +2,42 @@ package com.example.coursework.repository;
 
 import com.example.coursework.model.User;
 import com.example.coursework.model.UserStats;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
     Optional<UserStats> findByUser(User user);
-}
\ No newline at end of file
+
+    Optional<UserStats> findByUserId(Long userId);
+
+    @Query("SELECT s FROM UserStats s WHERE s.id > :afterId ORDER BY s.id")
+    List<UserStats> findPageAfter(long afterId, Pageable pageable);
+
+    // Верхня межа наступного чанку за id; null, якщо рядків після afterId немає
+    @Query(value = "SELECT MAX(id) FROM (SELECT id FROM users_stats WHERE id > :afterId ORDER BY id LIMIT :limit) chunk",
+            nativeQuery = true)
+    Long findChunkEndId(long afterId, int limit);
+
+    // Перерахунок лічильників періодів одним UPDATE на чанк; вже переведені сьогодні рядки пропускаються.
+    // UPDATE іде повз сутності, тож збільшує version: злиття, що прочитало рядок до переходу, не перезапише скинуті лічильники
+    @Modifying
+    @Query(value = "UPDATE users_stats s SET " +
+            "words_learned_today = COALESCE((SELECT SUM(d.words_learned) FROM users_daily_stats d " +
+            "WHERE d.user_id = s.user_id AND d.day >= :today), 0), " +
+            "words_learned_this_week = COALESCE((SELECT SUM(d.words_learned) FROM users_daily_stats d " +
+            "WHERE d.user_id = s.user_id AND d.day >= :weekStart), 0), " +
+            "words_learned_this_month = COALESCE((SELECT SUM(d.words_learned) FROM users_daily_stats d " +
+            "WHERE d.user_id = s.user_id AND d.day >= :monthStart), 0), " +
+            "last_updated_date = :today, " +
+            "version = version + 1 " +
+            "WHERE s.id > :afterId AND s.id <= :upToId " +
+            "AND (s.last_updated_date IS NULL OR s.last_updated_date < :today)",
+            nativeQuery = true)
+    int rollOverPeriods(long afterId, long upToId, LocalDate today, LocalDate weekStart, LocalDate monthStart);
+}
@@ -1,26 +1,50 @@
 package com.example.coursework.rest;
 
 import com.example.coursework.annotations.Loggable;
+import com.example.coursework.dto.CardImportReportDto;
+import com.example.coursework.dto.CardPageDto;
+import com.example.coursework.dto.CardSearchPageDto;
+import com.example.coursework.dto.CardSearchResultDto;
+import com.example.coursework.mapper.CardFieldsMapper;
 import com.example.coursework.model.Card;
+import com.example.coursework.search.SearchField;
+import com.example.coursework.service.CardImportFormat;
+import com.example.coursework.service.CardImportService;
 import com.example.coursework.service.CardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/cards")
 @Loggable
 public class CardController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final CardService cardService;
+    private final CardImportService cardImportService;
+    private final CardFieldsMapper cardFieldsMapper;
 
     @Autowired
-    public CardController(CardService cardService) {
+    public CardController(CardService cardService, CardImportService cardImportService, CardFieldsMapper cardFieldsMapper) {
         this.cardService = cardService;
+        this.cardImportService = cardImportService;
+        this.cardFieldsMapper = cardFieldsMapper;
     }
 
     @GetMapping("/{id}")
@@ -34,15 +58,51 @@ public class CardController {
     }
 
     @GetMapping("/word/{word}")
-    public ResponseEntity<List<Card>> getCardsByWord(@PathVariable String word) {
-        List<Card> cards = cardService.getCardsByWord(word);
-        return ResponseEntity.ok(cards);
+    public ResponseEntity<List<Map<String, Object>>> getCardsByWord(@PathVariable String word,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "100") int limit,
+                                                                    @RequestParam(required = false) List<String> fields) {
+        Set<String> projection = cardFieldsMapper.resolveFields(fields);
+        return toResponse(cardService.getCardsByWord(word, cursor, limit), projection);
+    }
+
+    @GetMapping(value = "/word/{word}", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamCardsByWord(@PathVariable String word,
+                                                                   @RequestParam(required = false) List<String> fields) {
+        Set<String> projection = cardFieldsMapper.resolveFields(fields);
+        StreamingResponseBody body = out -> cardService.streamCardsByWord(word, projection, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Card>> getCardsByType(@PathVariable String type) {
-        List<Card> cards = cardService.getCardsByType(type);
-        return ResponseEntity.ok(cards);
+    public ResponseEntity<List<Map<String, Object>>> getCardsByType(@PathVariable String type,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "100") int limit,
+                                                                    @RequestParam(required = false) List<String> fields) {
+        Set<String> projection = cardFieldsMapper.resolveFields(fields);
+        return toResponse(cardService.getCardsByType(type, cursor, limit), projection);
+    }
+
+    @GetMapping(value = "/type/{type}", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamCardsByType(@PathVariable String type,
+                                                                   @RequestParam(required = false) List<String> fields) {
+        Set<String> projection = cardFieldsMapper.resolveFields(fields);
+        StreamingResponseBody body = out -> cardService.streamCardsByType(type, projection, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CardSearchPageDto> searchCards(@RequestParam("q") String query,
+                                                         @RequestParam(defaultValue = "ALL") SearchField field,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(cardService.searchCards(query, field, page, size));
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<CardSearchResultDto>> autocomplete(@RequestParam String prefix,
+                                                                  @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(cardService.autocomplete(prefix, limit));
     }
 
     @PostMapping
@@ -51,6 +111,14 @@ public class CardController {
         return ResponseEntity.created(URI.create("/api/cards/" + createdCard.getId())).body(createdCard);
     }
 
+    // Тіло запиту читається потоком (CSV з заголовком або NDJSON), без буферизації всього файлу
+    @PostMapping("/import")
+    public ResponseEntity<CardImportReportDto> importCards(InputStream body,
+                                                          @RequestParam(defaultValue = "csv") String format,
+                                                          @RequestParam(required = false) Integer batchSize) throws IOException {
+        return ResponseEntity.ok(cardImportService.importCards(body, CardImportFormat.from(format), batchSize));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Card> updateCard(@PathVariable Long id, @RequestBody Card card) {
         card.setId(id); // Встановлюємо ідентифікатор для оновлення
@@ -63,4 +131,27 @@ public class CardController {
         cardService.deleteCard(id);
         return ResponseEntity.ok().build();
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    // Слово з таким типом уже є - спрацював унікальний індекс uq_cards_word_type_normalized
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDuplicateCard(DataIntegrityViolationException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Card with this word and type already exists");
+    }
+
+    // Тіло лишається JSON-масивом, курсор наступної сторінки - у заголовку
+    private ResponseEntity<List<Map<String, Object>>> toResponse(CardPageDto page, Set<String> projection) {
+        List<Map<String, Object>> items = page.getItems().stream()
+                .map(card -> cardFieldsMapper.project(card, projection))
+                .collect(Collectors.toList());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(items);
+    }
 }
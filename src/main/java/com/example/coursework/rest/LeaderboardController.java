@@ -0,0 +1,44 @@
+package com.example.coursework.rest;
+
+import com.example.coursework.annotations.Loggable;
+import com.example.coursework.dto.LeaderboardEntryDto;
+import com.example.coursework.dto.LeaderboardPageDto;
+import com.example.coursework.leaderboard.LeaderboardPeriod;
+import com.example.coursework.service.LeaderboardService;
+import com.example.coursework.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@Loggable
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+    private final UserService userService;
+
+    @Autowired
+    public LeaderboardController(LeaderboardService leaderboardService, UserService userService) {
+        this.leaderboardService = leaderboardService;
+        this.userService = userService;
+    }
+
+    @GetMapping
+    public ResponseEntity<LeaderboardPageDto> getTop(@RequestParam(defaultValue = "total") String period,
+                                                     @RequestParam(defaultValue = "0") int offset,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getTop(LeaderboardPeriod.from(period), offset, limit));
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<LeaderboardEntryDto> getMyRank(@RequestParam(defaultValue = "total") String period) {
+        return ResponseEntity.ok(leaderboardService.getRank(LeaderboardPeriod.from(period), userService.getCurrentUser()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+}
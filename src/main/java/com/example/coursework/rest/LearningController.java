@@ -4,9 +4,12 @@ import com.example.coursework.annotations.Loggable;
 import com.example.coursework.dto.AnswerResultDto;
 import com.example.coursework.dto.CardProgressDto;
 import com.example.coursework.model.User;
+import com.example.coursework.scheduling.SchedulingAlgorithms;
+import com.example.coursework.service.AnswerSubmissionService;
 import com.example.coursework.service.LearningService;
 import com.example.coursework.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,13 +21,21 @@ import java.util.Map;
 @Loggable
 public class LearningController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+
     private final LearningService learningService;
+    private final AnswerSubmissionService answerSubmissionService;
     private final UserService userService;
+    private final SchedulingAlgorithms schedulingAlgorithms;
 
     @Autowired
-    public LearningController(LearningService learningService, UserService userService) {
+    public LearningController(LearningService learningService, AnswerSubmissionService answerSubmissionService,
+                              UserService userService, SchedulingAlgorithms schedulingAlgorithms) {
         this.learningService = learningService;
+        this.answerSubmissionService = answerSubmissionService;
         this.userService = userService;
+        this.schedulingAlgorithms = schedulingAlgorithms;
     }
 
     @GetMapping("/get-cards")
@@ -36,10 +47,39 @@ public class LearningController {
     }
 
     @PostMapping("/answer")
-    public ResponseEntity<List<AnswerResultDto>> processAnswers(@RequestBody Map<Long, Boolean> answers) {
+    public ResponseEntity<List<AnswerResultDto>> processAnswers(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                                @RequestBody Map<Long, Boolean> answers) {
+        User user = userService.getCurrentUser();
+
+        AnswerSubmissionService.Submission submission = answerSubmissionService.submit(user, idempotencyKey, answers);
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAY_HEADER, String.valueOf(submission.replayed()))
+                .body(submission.results());
+    }
+
+    @GetMapping("/algorithm")
+    public ResponseEntity<Map<String, Object>> getSchedulingAlgorithm() {
         User user = userService.getCurrentUser();
+        return ResponseEntity.ok(Map.of(
+                "algorithm", schedulingAlgorithms.forUser(user).getName(),
+                "available", schedulingAlgorithms.getNames()));
+    }
+
+    @PutMapping("/algorithm")
+    public ResponseEntity<Map<String, Object>> setSchedulingAlgorithm(@RequestParam String name) {
+        String algorithm;
+        try {
+            algorithm = schedulingAlgorithms.forName(name).getName();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        User user = userService.getCurrentUser();
+        userService.setSchedulingAlgorithm(user.getId(), algorithm);
+        return ResponseEntity.ok(Map.of("algorithm", algorithm));
+    }
 
-        List<AnswerResultDto> results = learningService.processAnswers(user, answers);
-        return ResponseEntity.ok(results);
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.example.coursework.rest;
+
+import com.example.coursework.annotations.Loggable;
+import com.example.coursework.model.User;
+import com.example.coursework.service.ProgressExportFormat;
+import com.example.coursework.service.ProgressExportService;
+import com.example.coursework.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api")
+@Loggable
+public class ProgressExportController {
+
+    private final ProgressExportService progressExportService;
+    private final UserService userService;
+
+    @Autowired
+    public ProgressExportController(ProgressExportService progressExportService, UserService userService) {
+        this.progressExportService = progressExportService;
+        this.userService = userService;
+    }
+
+    @GetMapping("/export/progress")
+    public ResponseEntity<StreamingResponseBody> exportOwnProgress(@RequestParam(defaultValue = "ndjson") String format,
+                                                                   @RequestParam(defaultValue = "false") boolean gzip,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                                   @RequestParam(required = false) String after) {
+        User user = userService.getCurrentUser();
+        return export(user.getId(), ProgressExportFormat.from(format), gzip, since, after);
+    }
+
+    // Без userId - прогрес усіх користувачів
+    @GetMapping("/admin/export/progress")
+    public ResponseEntity<StreamingResponseBody> exportProgress(@RequestParam(required = false) Long userId,
+                                                                @RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestParam(defaultValue = "false") boolean gzip,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                                @RequestParam(required = false) String after) {
+        return export(userId, ProgressExportFormat.from(format), gzip, since, after);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(Long userId, ProgressExportFormat format, boolean gzip,
+                                                         LocalDateTime since, String after) {
+        // Курсор розбираємо до початку стрімінгу, щоб помилка повернулась як 400
+        long[] afterKey = ProgressExportService.parseAfter(after);
+        StreamingResponseBody body = out -> progressExportService.exportProgress(userId, since, afterKey, format, gzip, out);
+        String fileName = "progress." + format.getExtension() + (gzip ? ".gz" : "");
+        MediaType contentType = MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType());
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
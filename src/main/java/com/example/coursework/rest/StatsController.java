@@ -2,7 +2,7 @@ package com.example.coursework.rest;
 
 import com.example.coursework.annotations.Loggable;
 import com.example.coursework.model.User;
-import com.example.coursework.model.UserStats;
+import com.example.coursework.dto.UserStatsDto;
 import com.example.coursework.service.StatsService;
 import com.example.coursework.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,10 +26,9 @@ public class StatsController {
     }
 
     @GetMapping
-    public ResponseEntity<UserStats> getStats() {
+    public ResponseEntity<UserStatsDto> getStats() {
         User user = userService.getCurrentUser();
-        statsService.updateStats(user);
-        UserStats stats = statsService.getStatsForUser(user);
+        UserStatsDto stats = statsService.getStatsForUser(user);
         return ResponseEntity.ok(stats);
     }
 }
\ No newline at end of file
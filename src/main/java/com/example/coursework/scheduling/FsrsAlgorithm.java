@@ -0,0 +1,120 @@
+package com.example.coursework.scheduling;
+
+import org.springframework.stereotype.Component;
+
+// FSRS-4.5 з типовими вагами; відповідь бінарна, тож правильна = Good (3), неправильна = Again (1)
+@Component
+public class FsrsAlgorithm implements SchedulingAlgorithm {
+
+    public static final String NAME = "fsrs";
+
+    private static final double[] W = {
+            0.4872, 1.4003, 3.7145, 13.8206, 5.1618, 1.2298, 0.8975, 0.031, 1.6474,
+            0.1367, 1.0461, 2.1072, 0.0793, 0.3246, 1.587, 0.2272, 2.8755
+    };
+    private static final int AGAIN = 1;
+    private static final int GOOD = 3;
+    private static final double DECAY = -0.5;
+    private static final double FACTOR = 19.0 / 81.0;
+    private static final double REQUEST_RETENTION = 0.9;
+    private static final double INTERVAL_MODIFIER = (Math.pow(REQUEST_RETENTION, 1 / DECAY) - 1) / FACTOR;
+    private static final int MIN_INTERVAL = 1;  // in days
+    private static final int MAX_INTERVAL = 365;  // in days
+    private static final long RELEARN_DELAY = 60;
+    private static final double DAY = 24 * 60 * 60;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ReviewState next(ReviewState state, boolean correct, long nowSecond) {
+        int grade = correct ? GOOD : AGAIN;
+        double stability;
+        double difficulty;
+        if (state.stability() <= 0 && state.reps() == 0) {
+            stability = initialStability(grade);
+            difficulty = initialDifficulty(grade);
+        } else {
+            double lastDifficulty = currentDifficulty(state);
+            stability = nextStability(state, lastDifficulty, correct, nowSecond);
+            difficulty = nextDifficulty(lastDifficulty, grade);
+        }
+        int interval = correct ? intervalDays(stability) : MIN_INTERVAL;
+        long delay = correct ? (long) (interval * DAY) : RELEARN_DELAY;
+        return new ReviewState(correct ? state.reps() + 1 : 0, interval, state.ease(),
+                stability, difficulty, nowSecond, delay);
+    }
+
+    @Override
+    public long previewDelaySeconds(ReviewState state, boolean correct, long nowSecond) {
+        if (!correct) {
+            return RELEARN_DELAY;
+        }
+        double stability = state.stability() <= 0 && state.reps() == 0
+                ? initialStability(GOOD)
+                : nextStability(state, currentDifficulty(state), true, nowSecond);
+        return (long) (intervalDays(stability) * DAY);
+    }
+
+    private static double nextStability(ReviewState state, double difficulty, boolean correct, long nowSecond) {
+        double stability = currentStability(state);
+        double retrievability = retrievability(elapsedDays(state, nowSecond), stability);
+        return correct
+                ? recallStability(difficulty, stability, retrievability)
+                : forgetStability(difficulty, stability, retrievability);
+    }
+
+    // Картки, що вже мають історію SM-2, стартують зі стабільністю, рівною поточному інтервалу
+    private static double currentStability(ReviewState state) {
+        return state.stability() > 0 ? state.stability() : Math.max(state.interval(), W[GOOD - 1]);
+    }
+
+    private static double currentDifficulty(ReviewState state) {
+        return state.difficulty() > 0 ? state.difficulty() : initialDifficulty(GOOD);
+    }
+
+    private static double elapsedDays(ReviewState state, long nowSecond) {
+        if (state.lastAnsweredSecond() == ReviewState.NEVER) {
+            return 0;
+        }
+        return Math.max(0, (nowSecond - state.lastAnsweredSecond()) / DAY);
+    }
+
+    private static double retrievability(double elapsedDays, double stability) {
+        return Math.pow(1 + FACTOR * elapsedDays / stability, DECAY);
+    }
+
+    private static double initialStability(int grade) {
+        return Math.max(W[grade - 1], 0.1);
+    }
+
+    private static double initialDifficulty(int grade) {
+        return clampDifficulty(W[4] - (grade - 3) * W[5]);
+    }
+
+    private static double nextDifficulty(double difficulty, int grade) {
+        double next = difficulty - W[6] * (grade - 3);
+        return clampDifficulty(W[7] * initialDifficulty(GOOD) + (1 - W[7]) * next);
+    }
+
+    private static double recallStability(double difficulty, double stability, double retrievability) {
+        return stability * (1 + Math.exp(W[8]) * (11 - difficulty) * Math.pow(stability, -W[9])
+                * (Math.exp((1 - retrievability) * W[10]) - 1));
+    }
+
+    private static double forgetStability(double difficulty, double stability, double retrievability) {
+        return W[11] * Math.pow(difficulty, -W[12]) * (Math.pow(stability + 1, W[13]) - 1)
+                * Math.exp((1 - retrievability) * W[14]);
+    }
+
+    private static int intervalDays(double stability) {
+        long interval = Math.round(stability * INTERVAL_MODIFIER);
+        return (int) Math.max(MIN_INTERVAL, Math.min(interval, MAX_INTERVAL));
+    }
+
+    private static double clampDifficulty(double difficulty) {
+        return Math.max(1, Math.min(difficulty, 10));
+    }
+}
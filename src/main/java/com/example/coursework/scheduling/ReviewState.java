@@ -0,0 +1,40 @@
+package com.example.coursework.scheduling;
+
+import com.example.coursework.model.UserProgress;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Стан повторення картки поза JPA: алгоритми працюють лише з цим значенням і не торкаються сутностей.
+// stability/difficulty = 0 означає "ще не задано" (картка не проходила FSRS)
+public record ReviewState(int reps, int interval, double ease, double stability, double difficulty,
+                          long lastAnsweredSecond, long delaySeconds) {
+
+    public static final long NEVER = Long.MIN_VALUE;
+
+    public static ReviewState of(UserProgress progress) {
+        return new ReviewState(
+                progress.getReps(),
+                progress.getInterval(),
+                progress.getEase(),
+                progress.getStability() == null ? 0 : progress.getStability(),
+                progress.getDifficulty() == null ? 0 : progress.getDifficulty(),
+                progress.getLastAnswered() == null ? NEVER : toEpochSecond(progress.getLastAnswered()),
+                0);
+    }
+
+    public void applyTo(UserProgress progress, LocalDateTime answeredAt) {
+        progress.setReps(reps);
+        progress.setInterval(interval);
+        progress.setEase(ease);
+        progress.setStability(stability > 0 ? stability : null);
+        progress.setDifficulty(difficulty > 0 ? difficulty : null);
+        progress.setLastAnswered(answeredAt);
+        progress.setDue(answeredAt.plusSeconds(delaySeconds));
+    }
+
+    // Як і в DueQueueIndex: LocalDateTime трактуємо як UTC, важливі лише різниці
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
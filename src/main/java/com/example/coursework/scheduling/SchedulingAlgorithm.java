@@ -0,0 +1,12 @@
+package com.example.coursework.scheduling;
+
+// Чиста функція планування: без побічних ефектів, час передається явно, тож придатна для офлайн-прогонів
+public interface SchedulingAlgorithm {
+
+    String getName();
+
+    ReviewState next(ReviewState state, boolean correct, long nowSecond);
+
+    // Лише затримка до наступного показу, без створення нового стану - для прев'ю цілої колоди
+    long previewDelaySeconds(ReviewState state, boolean correct, long nowSecond);
+}
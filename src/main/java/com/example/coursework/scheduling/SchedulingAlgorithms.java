@@ -0,0 +1,45 @@
+package com.example.coursework.scheduling;
+
+import com.example.coursework.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Component
+public class SchedulingAlgorithms {
+
+    private final Map<String, SchedulingAlgorithm> algorithms = new LinkedHashMap<>();
+    private final SchedulingAlgorithm defaultAlgorithm;
+
+    @Autowired
+    public SchedulingAlgorithms(List<SchedulingAlgorithm> algorithms,
+                                @Value("${learnlingua.scheduling.default-algorithm:sm2}") String defaultName) {
+        for (SchedulingAlgorithm algorithm : algorithms) {
+            this.algorithms.put(algorithm.getName(), algorithm);
+        }
+        this.defaultAlgorithm = forName(defaultName);
+    }
+
+    public SchedulingAlgorithm forName(String name) {
+        SchedulingAlgorithm algorithm = algorithms.get(name.trim().toLowerCase(Locale.ROOT));
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Unknown scheduling algorithm: " + name);
+        }
+        return algorithm;
+    }
+
+    // Невідоме або не задане значення в профілі - алгоритм за замовчуванням
+    public SchedulingAlgorithm forUser(User user) {
+        String name = user.getSchedulingAlgorithm();
+        if (name == null) {
+            return defaultAlgorithm;
+        }
+        return algorithms.getOrDefault(name, defaultAlgorithm);
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(algorithms.keySet());
+    }
+}
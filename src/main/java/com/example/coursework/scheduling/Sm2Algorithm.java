@@ -0,0 +1,62 @@
+package com.example.coursework.scheduling;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class Sm2Algorithm implements SchedulingAlgorithm {
+
+    public static final String NAME = "sm2";
+
+    private static final double EASE_INCREMENT = 0.15;
+    private static final double EASE_DECREMENT = 0.2;
+    private static final double MIN_EASE = 1.3;
+    private static final int MIN_INTERVAL = 1;  // in days
+    private static final int MAX_INTERVAL = 365;  // in days
+    private static final long MINUTE = 60;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ReviewState next(ReviewState state, boolean correct, long nowSecond) {
+        if (!correct) {
+            return new ReviewState(0, MIN_INTERVAL, Math.max(MIN_EASE, state.ease() - EASE_DECREMENT),
+                    state.stability(), state.difficulty(), nowSecond, MINUTE);
+        }
+        int reps = state.reps() + 1;
+        int interval = nextInterval(state, reps);
+        return new ReviewState(reps, interval, Math.max(MIN_EASE, state.ease() + EASE_INCREMENT),
+                state.stability(), state.difficulty(), nowSecond, delaySeconds(reps, interval));
+    }
+
+    @Override
+    public long previewDelaySeconds(ReviewState state, boolean correct, long nowSecond) {
+        if (!correct) {
+            return MINUTE;
+        }
+        int reps = state.reps() + 1;
+        return delaySeconds(reps, nextInterval(state, reps));
+    }
+
+    // Перші два успішні повторення - короткі кроки в межах сесії, далі інтервал у днях
+    private static int nextInterval(ReviewState state, int reps) {
+        if (reps == 1) {
+            return 1;
+        } else if (reps == 2) {
+            return 6;
+        }
+        return (int) Math.max(MIN_INTERVAL, Math.min(state.interval() * state.ease(), MAX_INTERVAL));
+    }
+
+    private static long delaySeconds(int reps, int interval) {
+        if (reps == 1) {
+            return 10 * MINUTE;
+        } else if (reps == 2) {
+            return 30 * MINUTE;
+        }
+        return interval * DAY;
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.coursework.search;
+
+import com.example.coursework.dto.CardSearchPageDto;
+import com.example.coursework.dto.CardSearchResultDto;
+import com.example.coursework.model.Card;
+import com.example.coursework.repository.CardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Інвертований триграмний індекс каталогу карток у пам'яті (word, translation, synonyms, type)
+@Component
+public class CardSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final CardRepository cardRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, IndexedCard> documents = new HashMap<>();
+    private final Map<String, Set<Long>> grams = new HashMap<>();
+    // Токени всіх полів - для запитів, коротших за триграму
+    private final NavigableMap<String, Set<Long>> tokens = new TreeMap<>();
+    // Повні слова - для автодоповнення
+    private final NavigableMap<String, Set<Long>> words = new TreeMap<>();
+
+    @Autowired
+    public CardSearchIndex(CardRepository cardRepository) {
+        this.cardRepository = cardRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        List<Card> cards = cardRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            grams.clear();
+            tokens.clear();
+            words.clear();
+            cards.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Card search index built: {} cards, {} trigrams in {} ms", cards.size(), grams.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    public void put(Card card) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(card.getId());
+            add(card);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Collection<Card> cards) {
+        lock.writeLock().lock();
+        try {
+            for (Card card : cards) {
+                removeInternal(card.getId());
+                add(card);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long cardId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(cardId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public CardSearchPageDto search(String query, SearchField field, int page, int size) {
+        String q = normalize(query);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+
+        List<CardSearchResultDto> matches = new ArrayList<>();
+        if (!q.isEmpty()) {
+            lock.readLock().lock();
+            try {
+                Collection<Long> candidates = q.length() < GRAM ? tokenPrefixCandidates(q) : gramCandidates(q);
+                for (Long id : candidates) {
+                    IndexedCard card = documents.get(id);
+                    int score = score(card, q, field);
+                    if (score > 0) {
+                        matches.add(toDto(card, score));
+                    }
+                }
+                if (matches.isEmpty() && q.length() >= GRAM) {
+                    fuzzyMatches(q, field, matches);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(CardSearchResultDto::getScore).reversed()
+                .thenComparing(CardSearchResultDto::getWord, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(CardSearchResultDto::getId));
+
+        int from = (int) Math.min((long) pageNumber * pageSize, matches.size());
+        int to = Math.min(from + pageSize, matches.size());
+
+        CardSearchPageDto result = new CardSearchPageDto();
+        result.setItems(new ArrayList<>(matches.subList(from, to)));
+        result.setPage(pageNumber);
+        result.setSize(pageSize);
+        result.setTotal(matches.size());
+        return result;
+    }
+
+    public List<CardSearchResultDto> autocomplete(String prefix, int limit) {
+        String p = normalize(prefix);
+        int max = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<CardSearchResultDto> suggestions = new ArrayList<>(max);
+        if (p.isEmpty()) {
+            return suggestions;
+        }
+        lock.readLock().lock();
+        try {
+            for (Set<Long> ids : words.subMap(p, true, p + Character.MAX_VALUE, true).values()) {
+                for (Long id : ids) {
+                    IndexedCard card = documents.get(id);
+                    suggestions.add(toDto(card, card.normalizedWord().equals(p) ? 100 : 60));
+                    if (suggestions.size() == max) {
+                        return suggestions;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    private void add(Card card) {
+        IndexedCard indexed = new IndexedCard(card.getId(), card.getWord(), card.getTranslation(), card.getSynonyms(), card.getType(),
+                normalize(card.getWord()), normalize(card.getTranslation()), normalize(card.getSynonyms()), normalize(card.getType()));
+        documents.put(indexed.id(), indexed);
+        for (String gram : indexed.grams()) {
+            grams.computeIfAbsent(gram, key -> new HashSet<>()).add(indexed.id());
+        }
+        for (String token : indexed.tokens()) {
+            tokens.computeIfAbsent(token, key -> new HashSet<>()).add(indexed.id());
+        }
+        words.computeIfAbsent(indexed.normalizedWord(), key -> new HashSet<>()).add(indexed.id());
+    }
+
+    private void removeInternal(Long cardId) {
+        IndexedCard indexed = documents.remove(cardId);
+        if (indexed == null) {
+            return;
+        }
+        for (String gram : indexed.grams()) {
+            detach(grams, gram, cardId);
+        }
+        for (String token : indexed.tokens()) {
+            detach(tokens, token, cardId);
+        }
+        detach(words, indexed.normalizedWord(), cardId);
+    }
+
+    private static void detach(Map<String, Set<Long>> postings, String key, Long cardId) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(cardId);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private Collection<Long> gramCandidates(String q) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : gramsOf(q)) {
+            Set<Long> ids = grams.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        // Перетин починаємо з найкоротшого списку
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<Long> candidates = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                candidates.add(id);
+            }
+        }
+        return candidates;
+    }
+
+    private Collection<Long> tokenPrefixCandidates(String q) {
+        Set<Long> candidates = new HashSet<>();
+        for (Set<Long> ids : tokens.subMap(q, true, q + Character.MAX_VALUE, true).values()) {
+            candidates.addAll(ids);
+        }
+        return candidates;
+    }
+
+    // Якщо точного входження немає - ранжуємо за часткою спільних триграм (не менше половини)
+    private void fuzzyMatches(String q, SearchField field, List<CardSearchResultDto> matches) {
+        Set<String> queryGrams = gramsOf(q);
+        Map<Long, Integer> overlap = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<Long> ids = grams.get(gram);
+            if (ids != null) {
+                for (Long id : ids) {
+                    overlap.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+        overlap.forEach((id, count) -> {
+            if (count * 2 < queryGrams.size()) {
+                return;
+            }
+            IndexedCard card = documents.get(id);
+            int fieldOverlap = 0;
+            for (String gram : gramsOf(fieldText(card, field))) {
+                if (queryGrams.contains(gram)) {
+                    fieldOverlap++;
+                }
+            }
+            if (fieldOverlap * 2 >= queryGrams.size()) {
+                matches.add(toDto(card, Math.max(1, 10 * fieldOverlap / queryGrams.size())));
+            }
+        });
+    }
+
+    private static int score(IndexedCard card, String q, SearchField field) {
+        int score = 0;
+        if (field == SearchField.ALL || field == SearchField.WORD) {
+            if (card.normalizedWord().equals(q)) {
+                score = 100;
+            } else if (card.normalizedWord().startsWith(q)) {
+                score = 60;
+            } else if (card.normalizedWord().contains(q)) {
+                score = 40;
+            }
+        }
+        if ((field == SearchField.ALL || field == SearchField.TRANSLATION) && card.normalizedTranslation().contains(q)) {
+            score = Math.max(score, card.normalizedTranslation().equals(q) ? 30 : 20);
+        }
+        if ((field == SearchField.ALL || field == SearchField.SYNONYMS) && card.normalizedSynonyms().contains(q)) {
+            score = Math.max(score, 10);
+        }
+        if ((field == SearchField.ALL || field == SearchField.TYPE) && card.normalizedType().contains(q)) {
+            score = Math.max(score, card.normalizedType().equals(q) ? 8 : 5);
+        }
+        return score;
+    }
+
+    private static String fieldText(IndexedCard card, SearchField field) {
+        return switch (field) {
+            case WORD -> card.normalizedWord();
+            case TRANSLATION -> card.normalizedTranslation();
+            case SYNONYMS -> card.normalizedSynonyms();
+            case TYPE -> card.normalizedType();
+            case ALL -> card.normalizedWord() + ' ' + card.normalizedTranslation() + ' '
+                    + card.normalizedSynonyms() + ' ' + card.normalizedType();
+        };
+    }
+
+    private static CardSearchResultDto toDto(IndexedCard card, int score) {
+        CardSearchResultDto dto = new CardSearchResultDto();
+        dto.setId(card.id());
+        dto.setWord(card.word());
+        dto.setTranslation(card.translation());
+        dto.setSynonyms(card.synonyms());
+        dto.setType(card.type());
+        dto.setScore(score);
+        return dto;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).trim();
+    }
+
+    static Set<String> gramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private record IndexedCard(Long id, String word, String translation, String synonyms, String type,
+                               String normalizedWord, String normalizedTranslation, String normalizedSynonyms,
+                               String normalizedType) {
+
+        Set<String> grams() {
+            Set<String> result = gramsOf(normalizedWord);
+            result.addAll(gramsOf(normalizedTranslation));
+            result.addAll(gramsOf(normalizedSynonyms));
+            result.addAll(gramsOf(normalizedType));
+            return result;
+        }
+
+        Set<String> tokens() {
+            Set<String> result = new HashSet<>();
+            for (String text : List.of(normalizedWord, normalizedTranslation, normalizedSynonyms, normalizedType)) {
+                for (String token : text.split("[^\\p{L}\\p{N}]+")) {
+                    if (!token.isEmpty()) {
+                        result.add(token);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
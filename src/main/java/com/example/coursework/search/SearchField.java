@@ -0,0 +1,5 @@
+package com.example.coursework.search;
+
+public enum SearchField {
+    ALL, WORD, TRANSLATION, SYNONYMS, TYPE
+}
@@ -0,0 +1,12 @@
+package com.example.coursework.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class AnswerSubmissionConflictException extends RuntimeException {
+
+    public AnswerSubmissionConflictException(String message) {
+        super(message);
+    }
+}
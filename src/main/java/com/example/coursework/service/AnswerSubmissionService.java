@@ -0,0 +1,185 @@
+package com.example.coursework.service;
+
+import com.example.coursework.annotations.Loggable;
+import com.example.coursework.cache.TtlCache;
+import com.example.coursework.dto.AnswerResultDto;
+import com.example.coursework.model.User;
+import com.example.coursework.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ідемпотентне прийняття відповідей: повтор з тим самим Idempotency-Key повертає збережений результат,
+// а паралельна відправка того ж користувача відхиляється одразу, не чекаючи на блокування рядків прогресу
+@Service
+@Loggable
+public class AnswerSubmissionService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final TypeReference<List<AnswerResultDto>> RESULTS_TYPE = new TypeReference<>() {
+    };
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final LearningService learningService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TtlCache<String, StoredAnswers> storedAnswers;
+    private final Set<Long> inFlightUsers = ConcurrentHashMap.newKeySet();
+    private final Duration ttl;
+    private final Counter processed;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    @Autowired
+    public AnswerSubmissionService(LearningService learningService, IdempotencyKeyRepository idempotencyKeyRepository,
+                                   ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                   MeterRegistry registry,
+                                   @Value("${learnlingua.idempotency.max-entries:10000}") int maxEntries,
+                                   @Value("${learnlingua.idempotency.ttl:24h}") Duration ttl) {
+        this.learningService = learningService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storedAnswers = new TtlCache<>(maxEntries, ttl);
+        this.ttl = ttl;
+        this.processed = registry.counter("learnlingua.answers.submissions", "outcome", "processed");
+        this.replayed = registry.counter("learnlingua.answers.submissions", "outcome", "replayed");
+        this.rejected = registry.counter("learnlingua.answers.submissions", "outcome", "rejected");
+    }
+
+    public Submission submit(User user, String idempotencyKey, Map<Long, Boolean> answers) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH)) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters long");
+        }
+        String requestHash = hash(answers);
+        if (idempotencyKey != null) {
+            StoredAnswers stored = findStored(user.getId(), idempotencyKey);
+            if (stored != null) {
+                return replay(stored, requestHash);
+            }
+        }
+
+        // Подвійний клік на цьому вузлі: друга відправка навіть не відкриває транзакцію
+        if (!inFlightUsers.add(user.getId())) {
+            rejected.increment();
+            throw new AnswerSubmissionConflictException("Another answer submission for this deck is in progress");
+        }
+        try {
+            // Результат і ключ комітяться разом, тож повтор після збою мережі бачить або обидва, або нічого
+            List<AnswerResultDto> results = transactionTemplate.execute(status -> {
+                List<AnswerResultDto> processedResults = learningService.processAnswers(user, answers);
+                if (idempotencyKey != null) {
+                    idempotencyKeyRepository.insert(user.getId(), idempotencyKey, requestHash, toJson(processedResults), LocalDateTime.now());
+                }
+                return processedResults;
+            });
+            if (idempotencyKey != null) {
+                storedAnswers.put(cacheKey(user.getId(), idempotencyKey), new StoredAnswers(requestHash, results));
+            }
+            processed.increment();
+            return new Submission(results, false);
+        } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+            // Ту саму відправку міг щойно завершити інший вузол - тоді віддаємо його результат
+            StoredAnswers stored = idempotencyKey == null ? null : findStored(user.getId(), idempotencyKey);
+            if (stored != null) {
+                return replay(stored, requestHash);
+            }
+            rejected.increment();
+            throw new AnswerSubmissionConflictException("The deck was changed by a concurrent submission");
+        } finally {
+            inFlightUsers.remove(user.getId());
+        }
+    }
+
+    @Scheduled(cron = "${learnlingua.idempotency.cleanup-cron:0 15 * * * *}")
+    public void deleteExpiredKeys() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Submission replay(StoredAnswers stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            rejected.increment();
+            throw new IdempotencyKeyReuseException("Idempotency-Key was already used with a different set of answers");
+        }
+        replayed.increment();
+        return new Submission(stored.results(), true);
+    }
+
+    private StoredAnswers findStored(Long userId, String idempotencyKey) {
+        String cacheKey = cacheKey(userId, idempotencyKey);
+        StoredAnswers stored = storedAnswers.get(cacheKey);
+        if (stored != null) {
+            return stored;
+        }
+        // Промах у пам'яті: ключ міг записати інший вузол або процес до перезапуску
+        Optional<String[]> row = idempotencyKeyRepository.find(userId, idempotencyKey);
+        if (row.isEmpty()) {
+            return null;
+        }
+        stored = new StoredAnswers(row.get()[0], fromJson(row.get()[1]));
+        storedAnswers.put(cacheKey, stored);
+        return stored;
+    }
+
+    private String toJson(List<AnswerResultDto> results) {
+        try {
+            return objectMapper.writeValueAsString(results);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize answer results", e);
+        }
+    }
+
+    private List<AnswerResultDto> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, RESULTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored answer results", e);
+        }
+    }
+
+    private static String cacheKey(Long userId, String idempotencyKey) {
+        return userId + ":" + idempotencyKey;
+    }
+
+    // Відбиток відповідей не залежить від порядку ключів у JSON
+    private static String hash(Map<Long, Boolean> answers) {
+        StringBuilder canonical = new StringBuilder();
+        new TreeMap<>(answers).forEach((cardId, correct) -> canonical.append(cardId).append('=').append(correct).append(';'));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Submission(List<AnswerResultDto> results, boolean replayed) {
+    }
+
+    private record StoredAnswers(String requestHash, List<AnswerResultDto> results) {
+    }
+}
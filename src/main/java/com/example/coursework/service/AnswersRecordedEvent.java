@@ -0,0 +1,4 @@
+package com.example.coursework.service;
+
+public record AnswersRecordedEvent(Long userId, StatsDelta delta) {
+}
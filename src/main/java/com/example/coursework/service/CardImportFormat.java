@@ -0,0 +1,16 @@
+package com.example.coursework.service;
+
+import java.util.Locale;
+
+public enum CardImportFormat {
+    CSV,
+    NDJSON;
+
+    public static CardImportFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported import format: " + value);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.coursework.service;
+
+import com.example.coursework.annotations.Loggable;
+import com.example.coursework.dto.CardImportErrorDto;
+import com.example.coursework.dto.CardImportReportDto;
+import com.example.coursework.model.Card;
+import com.example.coursework.repository.CardImportRepository;
+import com.example.coursework.search.CardSearchIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Потоковий імпорт карток: читаємо по рядку, в пам'яті тримаємо лише поточний батч і ключі дедуплікації
+@Service
+@Loggable
+public class CardImportService {
+
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final List<String> REQUIRED_COLUMNS = List.of("word", "sentence", "translation", "type");
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final CardImportRepository cardImportRepository;
+    private final CardSearchIndex cardSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int defaultBatchSize;
+
+    @Autowired
+    public CardImportService(CardImportRepository cardImportRepository, CardSearchIndex cardSearchIndex,
+                             ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${learnlingua.import.batch-size:1000}") int defaultBatchSize) {
+        this.cardImportRepository = cardImportRepository;
+        this.cardSearchIndex = cardSearchIndex;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    public CardImportReportDto importCards(InputStream input, CardImportFormat format, Integer batchSize) throws IOException {
+        int size = batchSize == null ? defaultBatchSize : Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        long startedAt = System.currentTimeMillis();
+        ImportRun run = new ImportRun(size);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        if (format == CardImportFormat.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+
+        CardImportReportDto report = run.toReport();
+        report.setElapsedMs(System.currentTimeMillis() - startedAt);
+        logger.info("Card import finished: {} processed, {} inserted, {} duplicates, {} failed in {} ms",
+                report.getProcessed(), report.getInserted(), report.getDuplicates(), report.getFailed(), report.getElapsedMs());
+        return report;
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRowReader csv = new CsvRowReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            run.fail(csv.getRecordLine(), "Missing required columns: " + String.join(", ", missing));
+            return;
+        }
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            Card card = new Card();
+            card.setWord(column(record, columns, "word"));
+            card.setSentence(column(record, columns, "sentence"));
+            card.setTranslation(column(record, columns, "translation"));
+            card.setSynonyms(column(record, columns, "synonyms"));
+            card.setType(column(record, columns, "type"));
+            run.accept(csv.getRecordLine(), card);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            Card card;
+            try {
+                card = objectMapper.readValue(text, Card.class);
+            } catch (JsonProcessingException e) {
+                run.fail(line, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.accept(line, card);
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private static String validate(Card card) {
+        if (isBlank(card.getWord())) {
+            return "word is required";
+        }
+        if (isBlank(card.getSentence())) {
+            return "sentence is required";
+        }
+        if (isBlank(card.getTranslation())) {
+            return "translation is required";
+        }
+        if (isBlank(card.getType())) {
+            return "type is required";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String word, String type) {
+        return normalize(word) + '\n' + normalize(type);
+    }
+
+    // Стан одного імпорту; батч комітиться окремою транзакцією, тож збій не відкочує вже завантажене
+    private class ImportRun {
+
+        private final int batchSize;
+        private final Set<String> seenKeys = new HashSet<>();
+        private final List<Card> pending;
+        private final List<CardImportErrorDto> errors = new ArrayList<>();
+        private long processed;
+        private long inserted;
+        private long duplicates;
+        private long failed;
+        private int batches;
+
+        ImportRun(int batchSize) {
+            this.batchSize = batchSize;
+            this.pending = new ArrayList<>(batchSize);
+        }
+
+        void accept(long line, Card card) {
+            processed++;
+            String error = validate(card);
+            if (error != null) {
+                fail(line, error);
+                return;
+            }
+            card.setId(null);
+            card.setWord(card.getWord().trim());
+            card.setSentence(card.getSentence().trim());
+            card.setTranslation(card.getTranslation().trim());
+            card.setSynonyms(card.getSynonyms() == null ? "" : card.getSynonyms().trim());
+            card.setType(card.getType().trim());
+
+            if (!seenKeys.add(key(card.getWord(), card.getType()))) {
+                duplicates++;
+                return;
+            }
+            pending.add(card);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new CardImportErrorDto(line, message));
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Card> batch = new ArrayList<>(pending);
+            pending.clear();
+
+            List<Card> saved = transactionTemplate.execute(status -> insertNew(batch));
+            inserted += saved.size();
+            duplicates += batch.size() - saved.size();
+            batches++;
+            cardSearchIndex.putAll(saved);
+            if (!saved.isEmpty()) {
+                // Вставка йде повз Hibernate, тож закешовані результати запитів по каталогу застаріли
+                entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictQueryRegions();
+            }
+            logger.info("Card import progress: batch {}, {} rows processed, {} inserted", batches, processed, inserted);
+        }
+
+        private List<Card> insertNew(List<Card> batch) {
+            Set<String> existing = new HashSet<>();
+            Set<String> words = new HashSet<>();
+            for (Card card : batch) {
+                words.add(normalize(card.getWord()));
+            }
+            for (String[] row : cardImportRepository.findExistingWordTypes(words)) {
+                existing.add(key(row[0], row[1]));
+            }
+
+            List<Card> fresh = new ArrayList<>(batch.size());
+            for (Card card : batch) {
+                if (!existing.contains(key(card.getWord(), card.getType()))) {
+                    fresh.add(card);
+                }
+            }
+            if (fresh.isEmpty()) {
+                return fresh;
+            }
+
+            List<Long> ids = cardImportRepository.allocateIds(fresh.size());
+            for (int i = 0; i < fresh.size(); i++) {
+                fresh.get(i).setId(ids.get(i));
+            }
+            return cardImportRepository.insertBatch(fresh);
+        }
+
+        CardImportReportDto toReport() {
+            CardImportReportDto report = new CardImportReportDto();
+            report.setProcessed(processed);
+            report.setInserted(inserted);
+            report.setDuplicates(duplicates);
+            report.setFailed(failed);
+            report.setBatches(batches);
+            report.setErrors(errors);
+            report.setErrorsTruncated(failed > errors.size());
+            return report;
+        }
+    }
+}
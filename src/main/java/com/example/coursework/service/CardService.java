@@ -1,46 +1,168 @@
 package com.example.coursework.service;
 
 import com.example.coursework.annotations.Loggable;
+import com.example.coursework.cache.DueQueueIndex;
+import com.example.coursework.dto.CardPageDto;
+import com.example.coursework.dto.CardSearchPageDto;
+import com.example.coursework.dto.CardSearchResultDto;
+import com.example.coursework.mapper.CardFieldsMapper;
 import com.example.coursework.model.Card;
 import com.example.coursework.repository.CardRepository;
+import com.example.coursework.search.CardSearchIndex;
+import com.example.coursework.search.SearchField;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @Loggable
 public class CardService {
 
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+    private static final int MAX_PAGE_LIMIT = 500;
+    private static final int STREAM_FLUSH_ROWS = 500;
+
     private final CardRepository cardRepository;
+    private final CardSearchIndex cardSearchIndex;
+    private final CardFieldsMapper cardFieldsMapper;
+    private final ObjectMapper objectMapper;
+    private final DueQueueIndex dueQueueIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public CardService(CardRepository cardRepository) {
+    public CardService(CardRepository cardRepository, CardSearchIndex cardSearchIndex, CardFieldsMapper cardFieldsMapper, ObjectMapper objectMapper, DueQueueIndex dueQueueIndex) {
         this.cardRepository = cardRepository;
+        this.cardSearchIndex = cardSearchIndex;
+        this.cardFieldsMapper = cardFieldsMapper;
+        this.objectMapper = objectMapper;
+        this.dueQueueIndex = dueQueueIndex;
     }
 
     public Optional<Card> getCardById(Long id) {
         return cardRepository.findById(id);
     }
 
-    public List<Card> getCardsByWord(String word) {
-        return cardRepository.findByWordIgnoreCaseContaining(word);
+    @Transactional(readOnly = true)
+    public CardPageDto getCardsByWord(String word, String cursor, int limit) {
+        int pageLimit = clampLimit(limit);
+        List<Card> cards = cardRepository.findByWordLikeAfter(containsPattern(word), decodeCursor(cursor), PageRequest.of(0, pageLimit + 1));
+        return toPage(cards, pageLimit);
+    }
+
+    @Transactional(readOnly = true)
+    public CardPageDto getCardsByType(String type, String cursor, int limit) {
+        int pageLimit = clampLimit(limit);
+        List<Card> cards = cardRepository.findByTypeLikeAfter(containsPattern(type), decodeCursor(cursor), PageRequest.of(0, pageLimit + 1));
+        return toPage(cards, pageLimit);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamCardsByWord(String word, Set<String> fields, OutputStream out) throws IOException {
+        try (Stream<Card> cards = cardRepository.streamByWordLike(containsPattern(word))) {
+            writeNdjson(cards, fields, out);
+        }
     }
 
-    public List<Card> getCardsByType(String type) {
-        return cardRepository.findByTypeIgnoreCaseContaining(type);
+    @Transactional(readOnly = true)
+    public void streamCardsByType(String type, Set<String> fields, OutputStream out) throws IOException {
+        try (Stream<Card> cards = cardRepository.streamByTypeLike(containsPattern(type))) {
+            writeNdjson(cards, fields, out);
+        }
+    }
+
+    public CardSearchPageDto searchCards(String query, SearchField field, int page, int size) {
+        return cardSearchIndex.search(query, field, page, size);
+    }
+
+    public List<CardSearchResultDto> autocomplete(String prefix, int limit) {
+        return cardSearchIndex.autocomplete(prefix, limit);
     }
 
     public Card createCard(Card card) {
-        return cardRepository.save(card);
+        Card savedCard = cardRepository.save(card);
+        cardSearchIndex.put(savedCard);
+        return savedCard;
     }
 
     public Card updateCard(Card card) {
-        return cardRepository.save(card);
+        Card savedCard = cardRepository.save(card);
+        cardSearchIndex.put(savedCard);
+        return savedCard;
     }
 
     public void deleteCard(Long id) {
         cardRepository.deleteById(id);
+        cardSearchIndex.remove(id);
+        dueQueueIndex.removeCard(id);
+    }
+
+    // Кожен рядок пишемо одразу і від'єднуємо сутність, щоб heap не ріс разом з результатом
+    private void writeNdjson(Stream<Card> cards, Set<String> fields, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer();
+        Iterator<Card> iterator = cards.iterator();
+        int rows = 0;
+        while (iterator.hasNext()) {
+            Card card = iterator.next();
+            out.write(writer.writeValueAsBytes(cardFieldsMapper.project(card, fields)));
+            out.write('\n');
+            entityManager.detach(card);
+            if (++rows % STREAM_FLUSH_ROWS == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private CardPageDto toPage(List<Card> cards, int pageLimit) {
+        CardPageDto page = new CardPageDto();
+        if (cards.size() > pageLimit) {
+            List<Card> items = new ArrayList<>(cards.subList(0, pageLimit));
+            page.setItems(items);
+            page.setNextCursor(encodeCursor(items.get(items.size() - 1).getId()));
+        } else {
+            page.setItems(cards);
+        }
+        return page;
+    }
+
+    private static int clampLimit(int limit) {
+        return limit <= 0 ? DEFAULT_PAGE_LIMIT : Math.min(limit, MAX_PAGE_LIMIT);
+    }
+
+    private static String containsPattern(String value) {
+        String escaped = value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("id:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith("id:")) {
+                return Long.parseLong(decoded.substring(3));
+            }
+        } catch (IllegalArgumentException e) {
+            // невалідний base64 або число - нижче
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package com.example.coursework.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Серіалізує складання колоди одного користувача до кінця транзакції, щоб дві вкладки не зібрали дві колоди.
+// local - смугасті ReentrantLock у процесі; advisory - pg_advisory_xact_lock для кількох вузлів
+@Component
+public class DeckAssemblyLock {
+
+    // Простір ключів advisory-блокувань колоди, щоб не перетинатися з іншими можливими користувачами pg_advisory_*
+    private static final int ADVISORY_NAMESPACE = 0x4445434B;
+
+    public enum Mode {
+        LOCAL, ADVISORY
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Mode mode;
+    private final Duration timeout;
+    private final ReentrantLock[] stripes;
+    private final Timer waitTimer;
+    private final Counter timeouts;
+
+    @Autowired
+    public DeckAssemblyLock(DataSource dataSource, MeterRegistry registry,
+                            @Value("${learnlingua.deck-lock.mode:local}") String mode,
+                            @Value("${learnlingua.deck-lock.stripes:1024}") int stripes,
+                            @Value("${learnlingua.deck-lock.timeout:2s}") Duration timeout) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("learnlingua.deck-lock.stripes must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.timeout = timeout;
+        this.stripes = new ReentrantLock[powerOfTwoAtLeast(stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        String tag = this.mode.name().toLowerCase(Locale.ROOT);
+        this.waitTimer = Timer.builder("learnlingua.deck.lock.wait").tag("mode", tag).register(registry);
+        this.timeouts = registry.counter("learnlingua.deck.lock.timeouts", "mode", tag);
+    }
+
+    // Блокування знімається після коміту або відкату поточної транзакції, а не на виході з методу:
+    // інакше друга вкладка могла б прочитати IN_DECK ще до того, як перша колода стала видимою
+    public void lockForTransaction(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Deck assembly lock requires an active transaction");
+        }
+        long startedAt = System.nanoTime();
+        try {
+            if (mode == Mode.ADVISORY) {
+                lockAdvisory(userId);
+            } else {
+                lockLocal(userId);
+            }
+        } finally {
+            waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    private void lockLocal(Long userId) {
+        ReentrantLock lock = stripes[stripe(userId)];
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeckAssemblyTimeoutException("Interrupted while waiting for the deck of user " + userId);
+        }
+        if (!acquired) {
+            timeouts.increment();
+            throw new DeckAssemblyTimeoutException("Deck of user " + userId + " is being assembled by another request");
+        }
+        // afterCompletion виконується в тому ж потоці, тож unlock не падає з IllegalMonitorStateException
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    // Блокування транзакційне: Postgres знімає його сам на COMMIT/ROLLBACK. lock_timeout діє до кінця
+    // цієї короткої транзакції і заодно обмежує очікування на рядки при складанні колоди
+    private void lockAdvisory(Long userId) {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + Math.max(1, timeout.toMillis()) + "ms'");
+        try {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> null, ADVISORY_NAMESPACE, (int) (userId ^ (userId >>> 32)));
+        } catch (PessimisticLockingFailureException e) {
+            timeouts.increment();
+            throw new DeckAssemblyTimeoutException("Deck of user " + userId + " is being assembled by another request");
+        }
+    }
+
+    // Степінь двійки, щоб смугу вибирала маска
+    private static int powerOfTwoAtLeast(int n) {
+        int size = 1;
+        while (size < n) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private int stripe(Long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (stripes.length - 1);
+    }
+}
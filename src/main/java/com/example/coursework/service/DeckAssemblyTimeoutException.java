@@ -0,0 +1,12 @@
+package com.example.coursework.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DeckAssemblyTimeoutException extends RuntimeException {
+
+    public DeckAssemblyTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.coursework.service;
+
+import com.example.coursework.annotations.Loggable;
+import com.example.coursework.dto.LeaderboardEntryDto;
+import com.example.coursework.dto.LeaderboardPageDto;
+import com.example.coursework.leaderboard.LeaderboardIndex;
+import com.example.coursework.leaderboard.LeaderboardPeriod;
+import com.example.coursework.leaderboard.RankedSkipList;
+import com.example.coursework.model.User;
+import com.example.coursework.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+@Service
+@Loggable
+public class LeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final LeaderboardIndex leaderboardIndex;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public LeaderboardService(LeaderboardIndex leaderboardIndex, UserRepository userRepository) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.userRepository = userRepository;
+    }
+
+    public LeaderboardPageDto getTop(LeaderboardPeriod period, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<RankedSkipList.Entry> entries = leaderboardIndex.top(period, offset, size);
+
+        // Імена лише для сторінки, одним запитом
+        Map<Long, String> usernames = new HashMap<>(entries.size() * 2);
+        if (!entries.isEmpty()) {
+            List<Long> ids = entries.stream().map(RankedSkipList.Entry::userId).toList();
+            for (Object[] row : userRepository.findUsernamesByIds(ids)) {
+                usernames.put((Long) row[0], (String) row[1]);
+            }
+        }
+
+        LeaderboardPageDto page = new LeaderboardPageDto();
+        page.setPeriod(period.name().toLowerCase(Locale.ROOT));
+        page.setItems(entries.stream().map(entry -> toDto(entry, usernames.get(entry.userId()))).toList());
+        page.setOffset(offset);
+        page.setLimit(size);
+        page.setTotal(leaderboardIndex.size(period));
+        return page;
+    }
+
+    // Користувач без рядка статистики ще не має рангу - повертаємо rank 0
+    public LeaderboardEntryDto getRank(LeaderboardPeriod period, User user) {
+        RankedSkipList.Entry entry = leaderboardIndex.find(period, user.getId());
+        if (entry == null) {
+            entry = new RankedSkipList.Entry(0, user.getId(), 0);
+        }
+        return toDto(entry, user.getUsername());
+    }
+
+    private static LeaderboardEntryDto toDto(RankedSkipList.Entry entry, String username) {
+        LeaderboardEntryDto dto = new LeaderboardEntryDto();
+        dto.setRank(entry.rank());
+        dto.setUserId(entry.userId());
+        dto.setUsername(username);
+        dto.setScore(entry.score());
+        return dto;
+    }
+}
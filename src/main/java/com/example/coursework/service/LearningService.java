@@ -1,17 +1,27 @@
 package com.example.coursework.service;
 
 import com.example.coursework.annotations.Loggable;
+import com.example.coursework.cache.DueQueueIndex;
 import com.example.coursework.dto.AnswerResultDto;
 import com.example.coursework.dto.CardProgressDto;
 import com.example.coursework.model.Card;
 import com.example.coursework.model.CardStatus;
 import com.example.coursework.model.User;
 import com.example.coursework.model.UserProgress;
-import com.example.coursework.model.UserCardId;
 import com.example.coursework.repository.CardRepository;
 import com.example.coursework.repository.UserProgressRepository;
+import com.example.coursework.repository.UserRepository;
 import com.example.coursework.mapper.CardProgressMapper;
+import com.example.coursework.metrics.LearningMetrics;
+import com.example.coursework.scheduling.ReviewState;
+import com.example.coursework.scheduling.SchedulingAlgorithm;
+import com.example.coursework.scheduling.SchedulingAlgorithms;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,48 +34,63 @@ import java.util.stream.Collectors;
 public class LearningService {
 
     private static final int MAX_WORDS_IN_DECK = 5;
-    private static final double EASE_INCREMENT = 0.15;
-    private static final double EASE_DECREMENT = 0.2;
-    private static final double MIN_EASE = 1.3;
-    private static final int MIN_INTERVAL = 1;  // in days
-    private static final int MAX_INTERVAL = 365;  // in days
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final CardRepository cardRepository;
     private final UserProgressRepository userProgressRepository;
     private final CardProgressMapper cardProgressMapper;
     private final TimeFormattingService timeFormattingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DueQueueIndex dueQueueIndex;
+    private final SchedulingAlgorithms schedulingAlgorithms;
+    private final LearningMetrics learningMetrics;
+    private final ProgressArchiveService progressArchiveService;
+    private final DeckAssemblyLock deckAssemblyLock;
+    private final UserRepository userRepository;
 
     @Autowired
-    public LearningService(CardRepository cardRepository, UserProgressRepository userProgressRepository, CardProgressMapper cardProgressMapper, TimeFormattingService timeFormattingService) {
+    public LearningService(CardRepository cardRepository, UserProgressRepository userProgressRepository, CardProgressMapper cardProgressMapper, TimeFormattingService timeFormattingService, ApplicationEventPublisher eventPublisher, DueQueueIndex dueQueueIndex, SchedulingAlgorithms schedulingAlgorithms, LearningMetrics learningMetrics, ProgressArchiveService progressArchiveService, DeckAssemblyLock deckAssemblyLock, UserRepository userRepository) {
         this.cardRepository = cardRepository;
         this.userProgressRepository = userProgressRepository;
         this.cardProgressMapper = cardProgressMapper;
         this.timeFormattingService = timeFormattingService;
+        this.eventPublisher = eventPublisher;
+        this.dueQueueIndex = dueQueueIndex;
+        this.schedulingAlgorithms = schedulingAlgorithms;
+        this.learningMetrics = learningMetrics;
+        this.progressArchiveService = progressArchiveService;
+        this.deckAssemblyLock = deckAssemblyLock;
+        this.userRepository = userRepository;
     }
 
+    @Transactional
     public List<CardProgressDto> getCardsForLearning(User user) {
         List<UserProgress> cardsInDeck = userProgressRepository.findUserProgressWithCardByUserAndStatus(user, CardStatus.IN_DECK);
+        if (cardsInDeck.size() != MAX_WORDS_IN_DECK) {
+            // Повна колода читається без блокування; складання - лише під блокуванням користувача,
+            // і колоду перечитуємо, бо паралельна вкладка могла зібрати її, поки ми чекали
+            deckAssemblyLock.lockForTransaction(user.getId());
+            // Архівація забирає всі рядки користувача, тож архівований користувач завжди має неповну колоду.
+            // Без повернення архіву весь старий прогрес виглядав би як нові картки
+            progressArchiveService.rehydrateIfArchived(user);
+            cardsInDeck = userProgressRepository.findUserProgressWithCardByUserAndStatus(user, CardStatus.IN_DECK);
+        }
 
+        List<UserProgress> deck;
         if (cardsInDeck.size() == MAX_WORDS_IN_DECK) {
-            return cardsInDeck.stream().sorted(Comparator.comparing(UserProgress::getDue)).map(up -> {
-                CardProgressDto dto = cardProgressMapper.toDto(up.getCard(), user, up);
-                formatTimeFields(dto, up); // Форматуємо час в DTO
-                return dto;
-            }).collect(Collectors.toList());
+            cardsInDeck.sort(Comparator.comparing(UserProgress::getDue));
+            deck = cardsInDeck;
         } else {
-            List<Card> newDeck = getNewCardsForDeck(user);
-            return newDeck.stream().map(card -> {
-                Optional<UserProgress> progress = userProgressRepository.findByUserAndCard(user, card);
-                CardProgressDto dto = cardProgressMapper.toDto(card, user, progress.orElse(null));
-                if (progress.isPresent()) {
-                    formatTimeFields(dto, progress.get());  // Форматуємо час в DTO
-                } else {
-                    // Set default due dates for new cards
-                    dto.setDueFormattedTrue(timeFormattingService.formatTimeUntil(LocalDateTime.now().plusMinutes(10)));
-                    dto.setDueFormattedFalse(timeFormattingService.formatTimeUntil(LocalDateTime.now().plusMinutes(1)));
-                }
-                return dto;
-            }).collect(Collectors.toList());
+            deck = learningMetrics.timePhase("assemble-deck", () -> getNewCardsForDeck(user));
+            learningMetrics.deckAssembled(deck.size());
         }
+
+        SchedulingAlgorithm algorithm = schedulingAlgorithms.forUser(user);
+        LocalDateTime now = LocalDateTime.now();
+        return deck.stream().map(up -> {
+            CardProgressDto dto = cardProgressMapper.toDto(up.getCard(), user, up);
+            formatTimeFields(dto, up, algorithm, now); // Форматуємо час в DTO
+            return dto;
+        }).collect(Collectors.toList());
     }
 
     @Transactional
@@ -76,21 +101,30 @@ public class LearningService {
 
         List<UserProgress> cardsInDeck = userProgressRepository.findUserProgressWithCardByUserAndStatus(user, CardStatus.IN_DECK);
 
-        for (Long cardId : answers.keySet()) {
-            if (cardsInDeck.stream().noneMatch(up -> up.getCard().getId().equals(cardId))) {
-                return Collections.emptyList();
-            }
+        Map<Long, UserProgress> deckByCardId = new HashMap<>(cardsInDeck.size() * 2);
+        for (UserProgress userProgress : cardsInDeck) {
+            deckByCardId.put(userProgress.getCard().getId(), userProgress);
+        }
+        // Відповідь має покривати рівно поточну колоду
+        if (!deckByCardId.keySet().equals(answers.keySet())) {
+            return Collections.emptyList();
         }
 
-        List<AnswerResultDto> results = new ArrayList<>();
+        List<AnswerResultDto> results = new ArrayList<>(cardsInDeck.size());
+        List<LocalDateTime> previousAnswers = new ArrayList<>(cardsInDeck.size());
+        SchedulingAlgorithm algorithm = schedulingAlgorithms.forUser(user);
+        LocalDateTime now = LocalDateTime.now();
 
-        for (UserProgress userProgress : cardsInDeck) {
-            Long cardId = userProgress.getCard().getId();
+        int correctAnswers = 0;
+        for (UserProgress progress : cardsInDeck) {
+            Long cardId = progress.getCard().getId();
             boolean isCorrect = answers.get(cardId);
+            if (isCorrect) {
+                correctAnswers++;
+            }
 
-            UserProgress progress = userProgressRepository.findByUserAndCardId(user.getId(), cardId).orElseThrow(() -> new RuntimeException("Card not found"));
-            updateProgress(progress, isCorrect);
-            userProgressRepository.save(progress);
+            previousAnswers.add(progress.getLastAnswered());
+            updateProgress(progress, isCorrect, algorithm, now);
 
             AnswerResultDto result = new AnswerResultDto();
             result.setCardId(cardId);
@@ -102,6 +136,13 @@ public class LearningService {
             results.add(result);
         }
 
+        int batches = learningMetrics.timePhase("persist-answers", () -> userProgressRepository.batchUpdateProgress(cardsInDeck));
+        logger.debug("Processed {} answers for user {} in {} JDBC batch round-trip(s)", results.size(), user.getId(), batches);
+        // Статистику перераховує StatsRecomputeService після коміту, зливаючи часті відповіді
+        eventPublisher.publishEvent(new AnswersRecordedEvent(user.getId(), StatsDelta.of(previousAnswers, now.toLocalDate())));
+        dueQueueIndex.reschedule(user.getId(), cardsInDeck);
+        learningMetrics.answersProcessed(correctAnswers, cardsInDeck.size() - correctAnswers);
+
         if (!cardsInDeck.isEmpty()) {
             AnswerResultDto lastResult = results.get(results.size() - 1);
             lastResult.setIsLastCard(true);
@@ -110,86 +151,77 @@ public class LearningService {
         return results;
     }
 
-    private void updateProgress(UserProgress progress, boolean isCorrect) {
-        if (isCorrect) {
-            progress.setReps(progress.getReps() + 1);
-            if (progress.getReps() == 1) {
-                progress.setInterval(1);
-                progress.setDue(LocalDateTime.now().plusMinutes(10));
-            } else if (progress.getReps() == 2) {
-                progress.setInterval(6);
-                progress.setDue(LocalDateTime.now().plusMinutes(30));
-            } else {
-                progress.setInterval((int) Math.max(MIN_INTERVAL, Math.min(progress.getInterval() * progress.getEase(), MAX_INTERVAL)));
-                progress.setDue(LocalDateTime.now().plusDays(progress.getInterval()));
-            }
-            progress.setEase(Math.max(MIN_EASE, progress.getEase() + EASE_INCREMENT));
-        } else {
-            progress.setReps(0);
-            progress.setInterval(1);
-            progress.setEase(Math.max(MIN_EASE, progress.getEase() - EASE_DECREMENT));
-            progress.setDue(LocalDateTime.now().plusMinutes(1));
-        }
+    private void updateProgress(UserProgress progress, boolean isCorrect, SchedulingAlgorithm algorithm, LocalDateTime now) {
+        ReviewState next = algorithm.next(ReviewState.of(progress), isCorrect, ReviewState.toEpochSecond(now));
+        next.applyTo(progress, now);
         progress.setLearnedLevel(progress.getLearnedLevel() + (isCorrect ? 1 : 0));
-        progress.setLastAnswered(LocalDateTime.now());
         progress.setStatus(CardStatus.READY);
     }
 
-    private List<Card> getNewCardsForDeck(User user) {
-        List<Card> newDeck = new ArrayList<>(MAX_WORDS_IN_DECK);
-
-        List<UserProgress> readyCards = userProgressRepository.findUserProgressWithCardByUserAndStatus(user, CardStatus.READY);
-        List<Card> newCards = cardRepository.findNewCardsForUser(user.getId());
-
-        readyCards.sort(Comparator.comparing(UserProgress::getDue));
+    private List<UserProgress> getNewCardsForDeck(User user) {
+        // Беремо лише MAX_WORDS_IN_DECK кандидатів з кожного джерела, а не всю історію та весь каталог
+        Pageable candidates = PageRequest.of(0, MAX_WORDS_IN_DECK);
+        List<UserProgress> readyCards = dueQueueIndex.isEnabled()
+                ? findDueCardsFromQueue(user)
+                : userProgressRepository.findUserProgressWithCardByUserAndStatusOrderByDue(user, CardStatus.READY, candidates);
+        List<Card> newCards = cardRepository.findNewCardsForUser(user.getId(), candidates);
+
+        List<UserProgress> newDeck = new ArrayList<>(MAX_WORDS_IN_DECK);
+        List<Long> readyCardIds = new ArrayList<>(MAX_WORDS_IN_DECK);
+        List<UserProgress> createdProgress = new ArrayList<>(MAX_WORDS_IN_DECK);
         Iterator<UserProgress> readyIterator = readyCards.iterator();
         Iterator<Card> newCardIterator = newCards.iterator();
 
+        // Поточний користувач - від'єднаний знімок з кешу, а persist нового прогресу каскадує на власника через @MapsId
+        User owner = userRepository.getReferenceById(user.getId());
         boolean useReady = true;
         while (newDeck.size() < MAX_WORDS_IN_DECK && (readyIterator.hasNext() || newCardIterator.hasNext())) {
             if (useReady && readyIterator.hasNext()) {
-                newDeck.add(readyIterator.next().getCard());
+                UserProgress progress = readyIterator.next();
+                readyCardIds.add(progress.getCard().getId());
+                newDeck.add(progress);
             } else if (newCardIterator.hasNext()) {
-                newDeck.add(newCardIterator.next());
+                UserProgress progress = new UserProgress(owner, newCardIterator.next());
+                createdProgress.add(progress);
+                newDeck.add(progress);
             }
             useReady = !useReady;
         }
 
-        newDeck.forEach(card -> {
-            UserProgress progress = userProgressRepository.findById(new UserCardId(user.getId(), card.getId())).orElseGet(() -> new UserProgress(user, card));
-            progress.setStatus(CardStatus.IN_DECK);
-            userProgressRepository.save(progress);
-        });
+        userProgressRepository.saveAll(createdProgress);
+        if (!readyCardIds.isEmpty()) {
+            userProgressRepository.updateStatusForCards(user.getId(), readyCardIds, CardStatus.IN_DECK);
+            dueQueueIndex.remove(user.getId(), readyCardIds);
+        }
 
         return newDeck;
     }
 
-    private void formatTimeFields(CardProgressDto dto, UserProgress progress) {
-        if (progress.getLastAnswered() != null) {
-            dto.setLastAnsweredFormatted(timeFormattingService.formatTimeAgo(progress.getLastAnswered()));
-        } else {
-            dto.setLastAnsweredFormatted("Нове слово");
+    private List<UserProgress> findDueCardsFromQueue(User user) {
+        long[] dueCardIds = dueQueueIndex.peekDue(user.getId(), MAX_WORDS_IN_DECK);
+        if (dueCardIds.length == 0) {
+            return new ArrayList<>();
         }
-        dto.setDueFormattedTrue(timeFormattingService.formatTimeUntil(LocalDateTime.now().plusMinutes(calculateDueTime(progress, true))));
-        dto.setDueFormattedFalse(timeFormattingService.formatTimeUntil(LocalDateTime.now().plusMinutes(calculateDueTime(progress, false))));
+        List<Long> cardIds = new ArrayList<>(dueCardIds.length);
+        for (long cardId : dueCardIds) {
+            cardIds.add(cardId);
+        }
+        List<UserProgress> readyCards = userProgressRepository.findUserProgressWithCardByUserAndStatusAndCardIds(user, CardStatus.READY, cardIds);
+        readyCards.sort(Comparator.comparing(UserProgress::getDue));
+        return readyCards;
     }
 
-    private int calculateDueTime(UserProgress progress, boolean isCorrect) {
-        int interval;
-        if (isCorrect) {
-            progress.setReps(progress.getReps() + 1);
-            if (progress.getReps() == 1) {
-                interval = 10;
-            } else if (progress.getReps() == 2) {
-                interval = 30;
-            } else {
-                interval = (int) Math.max(MIN_INTERVAL, Math.min(progress.getInterval() * progress.getEase(), MAX_INTERVAL));
-            }
+    private void formatTimeFields(CardProgressDto dto, UserProgress progress, SchedulingAlgorithm algorithm, LocalDateTime now) {
+        if (progress.getLastAnswered() != null) {
+            dto.setLastAnsweredFormatted(timeFormattingService.formatTimeAgo(progress.getLastAnswered()));
         } else {
-            progress.setReps(0);
-            interval = 1;
+            dto.setLastAnsweredFormatted("Нове слово");
         }
-        return interval;
+        // Лише попередній розрахунок на знімку стану: керована сутність не змінюється
+        ReviewState state = ReviewState.of(progress);
+        long nowSecond = ReviewState.toEpochSecond(now);
+        dto.setDueFormattedTrue(timeFormattingService.formatTimeUntil(now.plusSeconds(algorithm.previewDelaySeconds(state, true, nowSecond))));
+        dto.setDueFormattedFalse(timeFormattingService.formatTimeUntil(now.plusSeconds(algorithm.previewDelaySeconds(state, false, nowSecond))));
     }
 
 }
\ No newline at end of file
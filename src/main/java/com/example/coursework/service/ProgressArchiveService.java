@@ -0,0 +1,125 @@
+package com.example.coursework.service;
+
+import com.example.coursework.cache.DueQueueIndex;
+import com.example.coursework.model.User;
+import com.example.coursework.repository.ProgressArchiveRepository;
+import com.example.coursework.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Переносить прогрес давно неактивних користувачів у users_progress_archive і повертає його при поверненні користувача
+@Service
+public class ProgressArchiveService {
+
+    private static final int USER_PAGE_SIZE = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ProgressArchiveRepository progressArchiveRepository;
+    private final UserRepository userRepository;
+    private final DueQueueIndex dueQueueIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration inactiveAfter;
+    private final Counter usersArchived;
+    private final Counter rowsArchived;
+    private final Counter usersRehydrated;
+    private final Counter rowsRehydrated;
+    private final Timer duration;
+
+    @Autowired
+    public ProgressArchiveService(ProgressArchiveRepository progressArchiveRepository, UserRepository userRepository,
+                                  DueQueueIndex dueQueueIndex,
+                                  PlatformTransactionManager transactionManager, MeterRegistry registry,
+                                  @Value("${learnlingua.archive.enabled:true}") boolean enabled,
+                                  @Value("${learnlingua.archive.inactive-after:180d}") Duration inactiveAfter) {
+        this.progressArchiveRepository = progressArchiveRepository;
+        this.userRepository = userRepository;
+        this.dueQueueIndex = dueQueueIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.inactiveAfter = inactiveAfter;
+        this.usersArchived = registry.counter("learnlingua.archive.users", "action", "archive");
+        this.rowsArchived = registry.counter("learnlingua.archive.rows", "action", "archive");
+        this.usersRehydrated = registry.counter("learnlingua.archive.users", "action", "rehydrate");
+        this.rowsRehydrated = registry.counter("learnlingua.archive.rows", "action", "rehydrate");
+        this.duration = Timer.builder("learnlingua.archive.duration").register(registry);
+    }
+
+    @Scheduled(cron = "${learnlingua.archive.cron:0 0 4 * * *}")
+    public void archiveInactiveUsers() {
+        if (!enabled) {
+            return;
+        }
+        duration.record(() -> archiveInactiveUsers(LocalDateTime.now().minus(inactiveAfter)));
+    }
+
+    void archiveInactiveUsers(LocalDateTime inactiveBefore) {
+        long startedAt = System.currentTimeMillis();
+        long afterId = 0;
+        long users = 0;
+        long rows = 0;
+        List<Long> userIds;
+        do {
+            userIds = userRepository.findActiveIdsAfter(afterId, PageRequest.of(0, USER_PAGE_SIZE));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            long from = afterId;
+            long to = userIds.get(userIds.size() - 1);
+            List<long[]> archived = transactionTemplate.execute(status -> progressArchiveRepository.archiveInactive(from, to, inactiveBefore));
+            for (long[] user : archived) {
+                dueQueueIndex.evict(user[0]);
+                rows += user[1];
+            }
+            users += archived.size();
+            afterId = to;
+        } while (userIds.size() == USER_PAGE_SIZE);
+
+        usersArchived.increment(users);
+        rowsArchived.increment(rows);
+        logger.info("Archived progress of {} users inactive since {} ({} rows) in {} ms",
+                users, inactiveBefore, rows, System.currentTimeMillis() - startedAt);
+    }
+
+    // Викликається в транзакції getCardsForLearning, тож повернені рядки одразу видно запитам колоди.
+    // Перевіряє саму таблицю архіву, а не прапорець з кешованого знімка: архівацію міг щойно виконати інший вузол
+    public void rehydrateIfArchived(User user) {
+        int restored = progressArchiveRepository.rehydrate(user.getId());
+        if (restored < 0) {
+            return;
+        }
+        usersRehydrated.increment();
+        rowsRehydrated.increment(restored);
+        logger.info("Rehydrated {} archived progress rows for user {}", restored, user.getId());
+        afterCommit(() -> dueQueueIndex.evict(user.getId()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.coursework.service;
+
+import com.example.coursework.annotations.Loggable;
+import com.example.coursework.dto.ProgressExportRowDto;
+import com.example.coursework.repository.ProgressExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@Loggable
+public class ProgressExportService {
+
+    private static final int FLUSH_ROWS = 1000;
+    private static final String CSV_HEADER =
+            "user_id,username,card_id,word,status,learned_level,ease,interval,reps,due,last_answered";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ProgressExportRepository progressExportRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ProgressExportService(ProgressExportRepository progressExportRepository, ObjectMapper objectMapper) {
+        this.progressExportRepository = progressExportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // userId == null - експорт усіх користувачів (лише для адміністратора)
+    @Transactional(readOnly = true)
+    public void exportProgress(Long userId, LocalDateTime since, long[] afterKey, ProgressExportFormat format,
+                               boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        RowWriter writer = format == ProgressExportFormat.CSV ? new CsvRowWriter(target) : new NdjsonRowWriter(target);
+
+        long startedAt = System.currentTimeMillis();
+        long[] rows = {0};
+        try {
+            writer.begin();
+            progressExportRepository.streamProgress(userId, since,
+                    afterKey == null ? null : afterKey[0], afterKey == null ? null : afterKey[1],
+                    row -> {
+                        try {
+                            writer.write(row);
+                            if (++rows[0] % FLUSH_ROWS == 0) {
+                                writer.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+        out.flush();
+        logger.info("Exported {} progress rows in {} ms", rows[0], System.currentTimeMillis() - startedAt);
+    }
+
+    // Курсор продовження - "userId:cardId" останнього отриманого рядка
+    public static long[] parseAfter(String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        String[] parts = after.split(":");
+        try {
+            if (parts.length == 2) {
+                return new long[]{Long.parseLong(parts[0].trim()), Long.parseLong(parts[1].trim())};
+            }
+        } catch (NumberFormatException e) {
+            // нижче
+        }
+        throw new IllegalArgumentException("Invalid after cursor, expected userId:cardId: " + after);
+    }
+
+    private interface RowWriter {
+        void begin() throws IOException;
+
+        void write(ProgressExportRowDto row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final OutputStream out;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.out = out;
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Роздільник між об'єктами пишемо самі, інакше Jackson додає пробіл перед кожним
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(ProgressExportRowDto row) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("userId", row.getUserId());
+            generator.writeStringField("username", row.getUsername());
+            generator.writeNumberField("cardId", row.getCardId());
+            generator.writeStringField("word", row.getWord());
+            generator.writeStringField("status", row.getStatus());
+            generator.writeNumberField("learnedLevel", row.getLearnedLevel());
+            generator.writeNumberField("ease", row.getEase());
+            generator.writeNumberField("interval", row.getInterval());
+            generator.writeNumberField("reps", row.getReps());
+            writeDateTime("due", row.getDue());
+            writeDateTime("lastAnswered", row.getLastAnswered());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeDateTime(String name, LocalDateTime value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeStringField(name, value.toString());
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+            out.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ProgressExportRowDto row) throws IOException {
+            writer.write(Long.toString(row.getUserId()));
+            writer.write(',');
+            writer.write(escape(row.getUsername()));
+            writer.write(',');
+            writer.write(Long.toString(row.getCardId()));
+            writer.write(',');
+            writer.write(escape(row.getWord()));
+            writer.write(',');
+            writer.write(row.getStatus());
+            writer.write(',');
+            writer.write(Integer.toString(row.getLearnedLevel()));
+            writer.write(',');
+            writer.write(Double.toString(row.getEase()));
+            writer.write(',');
+            writer.write(Integer.toString(row.getInterval()));
+            writer.write(',');
+            writer.write(Integer.toString(row.getReps()));
+            writer.write(',');
+            writer.write(format(row.getDue()));
+            writer.write(',');
+            writer.write(format(row.getLastAnswered()));
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static String format(LocalDateTime value) {
+        return value == null ? "" : value.toString();
+    }
+}
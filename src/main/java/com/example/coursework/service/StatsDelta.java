@@ -0,0 +1,52 @@
+package com.example.coursework.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Зміни лічильників статистики від відповідей; дельти комутують, тож кілька відповідей можна злити в один запис
+public class StatsDelta {
+
+    private final Map<LocalDate, Long> wordsLearnedByDay = new HashMap<>();
+    private long newlyLearned;
+
+    // previousAnswers - попередній last_answered кожної картки з відповіді (null, якщо слово нове)
+    public static StatsDelta of(List<LocalDateTime> previousAnswers, LocalDate answeredOn) {
+        StatsDelta delta = new StatsDelta();
+        for (LocalDateTime previous : previousAnswers) {
+            // Картка рахується лише в дні останньої відповіді, тому переносимо її зі старого бакета в день відповіді
+            delta.add(answeredOn, 1);
+            if (previous == null) {
+                delta.newlyLearned++;
+            } else {
+                delta.add(previous.toLocalDate(), -1);
+            }
+        }
+        return delta;
+    }
+
+    public void merge(StatsDelta other) {
+        other.wordsLearnedByDay.forEach(this::add);
+        newlyLearned += other.newlyLearned;
+    }
+
+    public boolean isEmpty() {
+        return newlyLearned == 0 && wordsLearnedByDay.isEmpty();
+    }
+
+    public Map<LocalDate, Long> getWordsLearnedByDay() {
+        return wordsLearnedByDay;
+    }
+
+    public long getNewlyLearned() {
+        return newlyLearned;
+    }
+
+    private void add(LocalDate day, long value) {
+        if (wordsLearnedByDay.merge(day, value, Long::sum) == 0) {
+            wordsLearnedByDay.remove(day);
+        }
+    }
+}
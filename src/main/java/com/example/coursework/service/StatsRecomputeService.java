@@ -0,0 +1,211 @@
+package com.example.coursework.service;
+
+import com.example.coursework.leaderboard.LeaderboardIndex;
+import com.example.coursework.metrics.LearningMetrics;
+import com.example.coursework.model.UserStats;
+import com.example.coursework.repository.UserDailyStatsRepository;
+import com.example.coursework.repository.UserRepository;
+import com.example.coursework.repository.UserStatsRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Відкладений перерахунок статистики: відповіді користувача за вікно зливаються в один запис users_stats.
+// Вікно рахується від першої незаписаної відповіді, тож знімок відстає не більше ніж на window.
+// Записи йдуть в одному потоці, щоб два злиття для одного користувача не перетиналися; повна перебудова
+// з нічної звірки теж іде через цей потік, тож злиття, що вже почалося, не допише дельти поверх неї.
+// Дельти живуть лише в пам'яті: після аварійної зупинки їх відновить нічна звірка
+@Service
+public class StatsRecomputeService {
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final UserRepository userRepository;
+    private final UserStatsRepository userStatsRepository;
+    private final UserDailyStatsRepository userDailyStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LearningMetrics learningMetrics;
+    private final LeaderboardIndex leaderboardIndex;
+    private final Duration window;
+    private final ScheduledExecutorService executor;
+    private final DistributionSummary coalescedTriggers;
+
+    @Autowired
+    public StatsRecomputeService(UserRepository userRepository, UserStatsRepository userStatsRepository,
+                                 UserDailyStatsRepository userDailyStatsRepository, PlatformTransactionManager transactionManager,
+                                 LearningMetrics learningMetrics, LeaderboardIndex leaderboardIndex, MeterRegistry registry,
+                                 @Value("${learnlingua.stats.recompute-window:2s}") Duration window) {
+        this.userRepository = userRepository;
+        this.userStatsRepository = userStatsRepository;
+        this.userDailyStatsRepository = userDailyStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.learningMetrics = learningMetrics;
+        this.leaderboardIndex = leaderboardIndex;
+        this.window = window;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-recompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.coalescedTriggers = DistributionSummary.builder("learnlingua.stats.coalesced.triggers")
+                .description("Answer batches merged into one stats recomputation")
+                .register(registry);
+        Gauge.builder("learnlingua.stats.pending.users", pending, Map::size).register(registry);
+    }
+
+    // Лише після коміту: відкочена відповідь не має потрапити в статистику
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAnswersRecorded(AnswersRecordedEvent event) {
+        enqueue(event.userId(), event.delta());
+    }
+
+    public void enqueue(Long userId, StatsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        boolean[] created = new boolean[1];
+        pending.compute(userId, (id, current) -> {
+            if (current == null) {
+                created[0] = true;
+                return new Pending(delta, LocalDateTime.now());
+            }
+            current.delta.merge(delta);
+            current.triggers++;
+            return current;
+        });
+        if (created[0]) {
+            executor.schedule(() -> flush(userId), window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public LocalDateTime getPendingSince(Long userId) {
+        Pending current = pending.get(userId);
+        return current == null ? null : current.since;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    // Повний перерахунок з users_progress вже містить усі закомічені відповіді
+    public void discard(Long userId) {
+        pending.remove(userId);
+    }
+
+    // Перебудова скидає накопичені дельти і виконується між злиттями, а не паралельно з ними
+    public void rebuild(Long userId, Runnable transaction) {
+        Future<?> done = executor.submit(() -> {
+            pending.remove(userId);
+            writeWithRetry(userId, transaction);
+        });
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding stats for user " + userId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to rebuild stats for user " + userId, e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        executor.shutdownNow();
+        for (Long userId : new ArrayList<>(pending.keySet())) {
+            flush(userId);
+        }
+    }
+
+    private void flush(Long userId) {
+        // remove атомарний щодо compute, тож після нього злиття належить лише цьому потоку
+        Pending batch = pending.remove(userId);
+        if (batch == null) {
+            return;
+        }
+        try {
+            learningMetrics.timePhase("record-stats", () -> writeWithRetry(userId,
+                    () -> transactionTemplate.executeWithoutResult(status -> apply(userId, batch.delta))));
+            coalescedTriggers.record(batch.triggers);
+        } catch (RuntimeException e) {
+            logger.error("Failed to update stats for user {}; nightly reconciliation will repair them", userId, e);
+        }
+    }
+
+    // Рядок між читанням і записом змінив перехід періодів: транзакція відкотилася повністю, повторюємо з нуля
+    private void writeWithRetry(Long userId, Runnable transaction) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transaction.run();
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("users_stats row of user {} changed concurrently, retrying (attempt {})", userId, attempt);
+            }
+        }
+    }
+
+    private void apply(Long userId, StatsDelta delta) {
+        LocalDate today = LocalDate.now();
+        delta.getWordsLearnedByDay().forEach((day, value) -> userDailyStatsRepository.addWordsLearned(userId, day, value));
+
+        UserStats stats = userStatsRepository.findByUserId(userId).orElseGet(() -> {
+            UserStats created = new UserStats();
+            created.setUser(userRepository.getReferenceById(userId));
+            created.setLastUpdatedDate(today);
+            return created;
+        });
+        stats.setTotalWordsLearned(stats.getTotalWordsLearned() + delta.getNewlyLearned());
+        if (today.isEqual(stats.getLastUpdatedDate())) {
+            delta.getWordsLearnedByDay().forEach((day, value) -> StatsWindows.applyDelta(stats, today, day, value));
+        } else {
+            // Нічний перехід ще не дійшов до цього рядка: дельта до вчорашніх лічильників дала б хибні вікна
+            StatsWindows.rollUp(userDailyStatsRepository, stats, userId, today);
+        }
+        stats.setComputedAt(LocalDateTime.now());
+        userStatsRepository.save(stats);
+        leaderboardIndex.update(userId, stats);
+        learningMetrics.statsRecomputed("answer");
+    }
+
+    private static final class Pending {
+
+        private final StatsDelta delta;
+        private final LocalDateTime since;
+        private int triggers = 1;
+
+        Pending(StatsDelta delta, LocalDateTime since) {
+            this.delta = delta;
+            this.since = since;
+        }
+    }
+}
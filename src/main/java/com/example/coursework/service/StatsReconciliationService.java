@@ -0,0 +1,102 @@
+package com.example.coursework.service;
+
+import com.example.coursework.leaderboard.LeaderboardIndex;
+import com.example.coursework.metrics.LearningMetrics;
+import com.example.coursework.model.UserStats;
+import com.example.coursework.repository.UserDailyStatsRepository;
+import com.example.coursework.repository.UserProgressRepository;
+import com.example.coursework.repository.UserRepository;
+import com.example.coursework.repository.UserStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Перебудовує денні бакети users_daily_stats та users_stats з users_progress
+@Service
+public class StatsReconciliationService {
+
+    private static final int USER_PAGE_SIZE = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final UserRepository userRepository;
+    private final UserProgressRepository userProgressRepository;
+    private final UserStatsRepository userStatsRepository;
+    private final UserDailyStatsRepository userDailyStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LearningMetrics learningMetrics;
+    private final StatsRecomputeService statsRecomputeService;
+    private final LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    public StatsReconciliationService(UserRepository userRepository, UserProgressRepository userProgressRepository,
+                                      UserStatsRepository userStatsRepository, UserDailyStatsRepository userDailyStatsRepository,
+                                      PlatformTransactionManager transactionManager, LearningMetrics learningMetrics,
+                                      StatsRecomputeService statsRecomputeService, LeaderboardIndex leaderboardIndex) {
+        this.userRepository = userRepository;
+        this.userProgressRepository = userProgressRepository;
+        this.userStatsRepository = userStatsRepository;
+        this.userDailyStatsRepository = userDailyStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.learningMetrics = learningMetrics;
+        this.statsRecomputeService = statsRecomputeService;
+        this.leaderboardIndex = leaderboardIndex;
+    }
+
+    // Перший запуск після появи бакетів: заповнюємо їх з існуючої історії
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!userDailyStatsRepository.existsAny()) {
+            reconcileAll();
+        }
+    }
+
+    @Scheduled(cron = "${learnlingua.stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        long startedAt = System.currentTimeMillis();
+        long afterId = 0;
+        int users = 0;
+        List<Long> userIds;
+        do {
+            // Архівований прогрес не лежить у users_progress: перерахунок з нього обнулив би статистику
+            userIds = userRepository.findActiveIdsAfter(afterId, PageRequest.of(0, USER_PAGE_SIZE));
+            for (Long userId : userIds) {
+                reconcile(userId);
+            }
+            users += userIds.size();
+            if (!userIds.isEmpty()) {
+                afterId = userIds.get(userIds.size() - 1);
+            }
+        } while (userIds.size() == USER_PAGE_SIZE);
+        logger.info("Reconciled stats for {} users in {} ms", users, System.currentTimeMillis() - startedAt);
+    }
+
+    public void reconcile(Long userId) {
+        statsRecomputeService.rebuild(userId, () -> transactionTemplate.executeWithoutResult(status -> {
+            userDailyStatsRepository.deleteAllForUser(userId);
+            userDailyStatsRepository.rebuildForUser(userId);
+
+            UserStats stats = userStatsRepository.findByUserId(userId).orElseGet(() -> {
+                UserStats created = new UserStats();
+                created.setUser(userRepository.getReferenceById(userId));
+                return created;
+            });
+            stats.setTotalWordsLearned(userProgressRepository.countByUserIdAndLastAnsweredIsNotNull(userId));
+            StatsWindows.rollUp(userDailyStatsRepository, stats, userId, LocalDate.now());
+            stats.setComputedAt(LocalDateTime.now());
+            userStatsRepository.save(stats);
+            leaderboardIndex.update(userId, stats);
+        }));
+        learningMetrics.statsRecomputed("reconcile");
+    }
+}
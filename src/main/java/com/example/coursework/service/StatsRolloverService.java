@@ -0,0 +1,112 @@
+package com.example.coursework.service;
+
+import com.example.coursework.leaderboard.LeaderboardIndex;
+import com.example.coursework.model.StatsRolloverWatermark;
+import com.example.coursework.repository.StatsRolloverWatermarkRepository;
+import com.example.coursework.repository.UserStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Перехід лічильників днів/тижнів/місяців для всіх користувачів одразу після півночі.
+// Кожен чанк і водяний знак комітяться разом, тож після збою робота продовжується з останнього чанку
+@Service
+public class StatsRolloverService {
+
+    private static final String JOB = "stats-rollover";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final UserStatsRepository userStatsRepository;
+    private final StatsRolloverWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaderboardIndex leaderboardIndex;
+    private final int chunkSize;
+    private final Counter rowsRolledOver;
+    private final Counter chunksProcessed;
+    private final Timer duration;
+
+    @Autowired
+    public StatsRolloverService(UserStatsRepository userStatsRepository, StatsRolloverWatermarkRepository watermarkRepository,
+                                PlatformTransactionManager transactionManager, LeaderboardIndex leaderboardIndex, MeterRegistry registry,
+                                @Value("${learnlingua.stats.rollover.chunk-size:1000}") int chunkSize) {
+        this.userStatsRepository = userStatsRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaderboardIndex = leaderboardIndex;
+        this.chunkSize = chunkSize;
+        this.rowsRolledOver = Counter.builder("learnlingua.stats.rollover.rows")
+                .description("users_stats rows moved to a new day")
+                .register(registry);
+        this.chunksProcessed = Counter.builder("learnlingua.stats.rollover.chunks").register(registry);
+        this.duration = Timer.builder("learnlingua.stats.rollover.duration").register(registry);
+    }
+
+    // Якщо застосунок не працював опівночі або впав посеред переходу - доробляємо при старті
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        rollOver();
+    }
+
+    @Scheduled(cron = "${learnlingua.stats.rollover-cron:0 1 0 * * *}")
+    public void rollOver() {
+        duration.record(() -> rollOver(LocalDate.now()));
+    }
+
+    void rollOver(LocalDate today) {
+        StatsRolloverWatermark watermark = watermarkRepository.findById(JOB).orElseGet(() -> {
+            StatsRolloverWatermark created = new StatsRolloverWatermark();
+            created.setJob(JOB);
+            return created;
+        });
+        if (!today.equals(watermark.getPeriodDay())) {
+            watermark.setPeriodDay(today);
+            watermark.setLastStatsId(0);
+            watermark.setCompleted(false);
+        } else if (watermark.isCompleted()) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        long resumedFrom = watermark.getLastStatsId();
+        long rows = 0;
+        while (!watermark.isCompleted()) {
+            rows += transactionTemplate.execute(status -> rollOverChunk(watermark, today));
+        }
+        if (rows > 0) {
+            // Масовий UPDATE йде повз сутності, тож рейтинги періодів простіше перебудувати цілком
+            leaderboardIndex.rebuild();
+        }
+        logger.info("Stats rollover for {} finished: {} rows updated after id {} in {} ms",
+                today, rows, resumedFrom, System.currentTimeMillis() - startedAt);
+    }
+
+    private int rollOverChunk(StatsRolloverWatermark watermark, LocalDate today) {
+        Long upToId = userStatsRepository.findChunkEndId(watermark.getLastStatsId(), chunkSize);
+        int updated = 0;
+        if (upToId == null) {
+            watermark.setCompleted(true);
+        } else {
+            updated = userStatsRepository.rollOverPeriods(watermark.getLastStatsId(), upToId, today,
+                    StatsWindows.weekStart(today), StatsWindows.monthStart(today));
+            watermark.setLastStatsId(upToId);
+        }
+        watermark.setUpdatedAt(LocalDateTime.now());
+        watermarkRepository.save(watermark);
+        rowsRolledOver.increment(updated);
+        chunksProcessed.increment();
+        return updated;
+    }
+}
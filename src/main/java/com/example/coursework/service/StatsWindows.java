@@ -0,0 +1,40 @@
+package com.example.coursework.service;
+
+import com.example.coursework.model.UserStats;
+import com.example.coursework.repository.UserDailyStatsRepository;
+
+import java.time.LocalDate;
+
+// Межі періодів статистики та перерахунок лічильників з денних бакетів users_daily_stats
+final class StatsWindows {
+
+    private StatsWindows() {
+    }
+
+    static LocalDate weekStart(LocalDate today) {
+        return today.minusWeeks(1);
+    }
+
+    static LocalDate monthStart(LocalDate today) {
+        return today.minusMonths(1);
+    }
+
+    static void applyDelta(UserStats stats, LocalDate today, LocalDate day, long delta) {
+        if (!day.isBefore(today)) {
+            stats.setWordsLearnedToday(stats.getWordsLearnedToday() + delta);
+        }
+        if (!day.isBefore(weekStart(today))) {
+            stats.setWordsLearnedThisWeek(stats.getWordsLearnedThisWeek() + delta);
+        }
+        if (!day.isBefore(monthStart(today))) {
+            stats.setWordsLearnedThisMonth(stats.getWordsLearnedThisMonth() + delta);
+        }
+    }
+
+    static void rollUp(UserDailyStatsRepository userDailyStatsRepository, UserStats stats, Long userId, LocalDate today) {
+        stats.setWordsLearnedToday(userDailyStatsRepository.sumWordsLearnedSince(userId, today));
+        stats.setWordsLearnedThisWeek(userDailyStatsRepository.sumWordsLearnedSince(userId, weekStart(today)));
+        stats.setWordsLearnedThisMonth(userDailyStatsRepository.sumWordsLearnedSince(userId, monthStart(today)));
+        stats.setLastUpdatedDate(today);
+    }
+}
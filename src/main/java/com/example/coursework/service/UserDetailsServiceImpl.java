@@ -1,8 +1,10 @@
 package com.example.coursework.service;
 
+import com.example.coursework.jdbc.ReadYourWritesTracker;
 import com.example.coursework.model.Role;
 import com.example.coursework.model.User;
 import com.example.coursework.repository.UserRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,28 +12,49 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate primaryTransaction;
 
     @Autowired
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+                                  PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = findUser(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Invalid username or password."));
         return new org.springframework.security.core.userdetails.User(user.getUsername(),
                 user.getPassword(), mapRolesToAuthorities(user.getRoles()));
     }
 
+    // Вхід читає з репліки, якщо вона налаштована. Але користувач тут ще анонімний, і маршрутизатор не знає,
+    // кого перевіряти, тож щойно зареєстрованого шукаємо в транзакції на запис, тобто на primary
+    private Optional<User> findUser(String username) {
+        ReadYourWritesTracker tracker = readYourWritesTracker.getIfAvailable();
+        if (tracker != null && tracker.recentlyWrote(username)) {
+            return primaryTransaction.execute(status -> userRepository.findByUsername(username));
+        }
+        return readOnlyTransaction.execute(status -> userRepository.findByUsername(username));
+    }
+
     private Collection < ? extends GrantedAuthority> mapRolesToAuthorities(Collection <Role> roles) {
         return roles.stream()
                 .map(role -> new SimpleGrantedAuthority(role.getName()))
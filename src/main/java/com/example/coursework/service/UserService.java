@@ -1,14 +1,23 @@
 package com.example.coursework.service;
 
+import com.example.coursework.cache.CurrentUserCache;
+import com.example.coursework.cache.UserSnapshot;
+import com.example.coursework.jdbc.ReadYourWritesTracker;
 import com.example.coursework.model.Role;
 import com.example.coursework.model.User;
 import com.example.coursework.repository.RoleRepository;
 import com.example.coursework.repository.UserRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -16,17 +25,26 @@ import java.util.Optional;
 @Service
 public class UserService {
 
+    private static final String CURRENT_USER_ATTRIBUTE = UserService.class.getName() + ".currentUser";
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CurrentUserCache currentUserCache;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
 
     @Autowired
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, CurrentUserCache currentUserCache,
+                       ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.currentUserCache = currentUserCache;
+        this.readYourWritesTracker = readYourWritesTracker;
     }
 
+    // Роль має лишатися керованою до save(): без open-in-view (профіль virtual) каскад інакше бачить від'єднану сутність
+    @Transactional
     public User createUser(String username, String password) {
         if (userRepository.findByUsername(username).isPresent()) {
             throw new IllegalArgumentException("Користувач з таким ім'ям вже існує.");
@@ -41,7 +59,24 @@ public class UserService {
 
         user.setRoles(Collections.singleton(userRole));
 
-        return userRepository.save(user);
+        currentUserCache.invalidate(username);
+        User saved = userRepository.save(user);
+        // Реєстрація анонімна, тож маршрутизатор не знає, чий це запис; вхід одразу після неї читає з primary
+        readYourWritesTracker.ifAvailable(tracker -> TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tracker.recordWrite(username);
+            }
+        }));
+        return saved;
+    }
+
+    // Зміна сутності скидає кеш знімків через UserCacheInvalidationListener
+    public void setSchedulingAlgorithm(Long userId, String algorithm) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalStateException("Користувач не знайдений"));
+        user.setSchedulingAlgorithm(algorithm);
+        userRepository.save(user);
     }
 
     public Optional<User> findByUsername(String username) {
@@ -54,8 +89,28 @@ public class UserService {
             throw new IllegalStateException("Поточний користувач не знайдений!");
         }
         String username = authentication.getName();
-        return findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("Поточний користувач не знайдений"));
+
+        // Спершу мемо в межах запиту, потім кеш знімків, і лише тоді база
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User memo
+                && username.equals(memo.getUsername())) {
+            return memo;
+        }
+
+        UserSnapshot snapshot = currentUserCache.get(username);
+        if (snapshot == null) {
+            User user = findByUsername(username)
+                    .orElseThrow(() -> new IllegalStateException("Поточний користувач не знайдений"));
+            snapshot = UserSnapshot.of(user);
+            currentUserCache.put(snapshot);
+        }
+
+        User user = snapshot.toUser();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+-- Базова схема в тому вигляді, який раніше створював ddl-auto=update.
+-- Існуючі бази позначаються цією версією (spring.flyway.baseline-on-migrate) і отримують лише наступні міграції
+
+CREATE TABLE IF NOT EXISTS users (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS roles (
+    id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS users_roles (
+    user_id bigint NOT NULL REFERENCES users (id),
+    role_id bigint NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE IF NOT EXISTS cards (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    word        varchar(255) NOT NULL,
+    sentence    varchar(255) NOT NULL,
+    translation varchar(255) NOT NULL,
+    synonyms    varchar(255) NOT NULL,
+    type        varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS users_progress (
+    user_id       bigint       NOT NULL REFERENCES users (id),
+    card_id       bigint       NOT NULL REFERENCES cards (id),
+    learned_level integer      NOT NULL,
+    last_answered timestamp(6),
+    ease          float(53)    NOT NULL,
+    due           timestamp(6),
+    "interval"    integer      NOT NULL,
+    reps          integer      NOT NULL,
+    status        varchar(255) NOT NULL CHECK (status IN ('READY', 'IN_DECK')),
+    PRIMARY KEY (user_id, card_id)
+);
+
+CREATE TABLE IF NOT EXISTS users_stats (
+    id                       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id                  bigint NOT NULL REFERENCES users (id),
+    total_words_learned      bigint NOT NULL,
+    words_learned_today      bigint NOT NULL,
+    words_learned_this_week  bigint NOT NULL,
+    words_learned_this_month bigint NOT NULL,
+    last_updated_date        date,
+    CONSTRAINT uk_users_stats_user UNIQUE (user_id)
+);
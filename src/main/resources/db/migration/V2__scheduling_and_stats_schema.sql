@@ -0,0 +1,26 @@
+-- Колонки й таблиці, що з'явилися разом із планувальниками та інкрементною статистикою.
+-- База зі старою схемою позначається версією 1 і отримує їх тут; IF NOT EXISTS - на випадок,
+-- якщо ddl-auto=update уже встиг їх створити
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS scheduling_algorithm varchar(255);
+
+ALTER TABLE users_progress ADD COLUMN IF NOT EXISTS stability float(53);
+ALTER TABLE users_progress ADD COLUMN IF NOT EXISTS difficulty float(53);
+
+ALTER TABLE users_stats ADD COLUMN IF NOT EXISTS computed_at timestamp(6);
+
+-- Денні бакети заповнює StatsReconciliationService при першому старті
+CREATE TABLE IF NOT EXISTS users_daily_stats (
+    user_id       bigint NOT NULL,
+    day           date   NOT NULL,
+    words_learned bigint NOT NULL,
+    PRIMARY KEY (user_id, day)
+);
+
+CREATE TABLE IF NOT EXISTS stats_rollover_watermark (
+    job           varchar(255) PRIMARY KEY,
+    period_day    date    NOT NULL,
+    last_stats_id bigint  NOT NULL,
+    completed     boolean NOT NULL,
+    updated_at    timestamp(6)
+);
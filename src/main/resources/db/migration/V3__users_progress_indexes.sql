@@ -0,0 +1,12 @@
+-- Колода: IN_DECK/READY картки користувача, READY впорядковані за due (з card_id для index-only scan черги)
+CREATE INDEX IF NOT EXISTS idx_users_progress_user_status_due
+    ON users_progress (user_id, status, due) INCLUDE (card_id);
+
+-- Звірка статистики та експорт: відповіді користувача за last_answered; нові картки без відповіді не індексуються
+CREATE INDEX IF NOT EXISTS idx_users_progress_user_answered
+    ON users_progress (user_id, last_answered) WHERE last_answered IS NOT NULL;
+
+-- Дедуплікація імпорту: lower(trim(word)) = ANY (?)
+CREATE INDEX IF NOT EXISTS idx_cards_word_normalized
+    ON cards (lower(trim(word)));
+
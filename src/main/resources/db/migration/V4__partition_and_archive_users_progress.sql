@@ -0,0 +1,51 @@
+-- users_progress ділиться хеш-партиціями за user_id: запити одного користувача читають одну партицію,
+-- а індекси та vacuum кожної партиції ростуть лише з активними користувачами, що в неї потрапили
+
+ALTER TABLE users_progress RENAME TO users_progress_unpartitioned;
+DROP INDEX IF EXISTS idx_users_progress_user_status_due;
+DROP INDEX IF EXISTS idx_users_progress_user_answered;
+
+CREATE TABLE users_progress (
+    user_id       bigint       NOT NULL REFERENCES users (id),
+    card_id       bigint       NOT NULL REFERENCES cards (id),
+    learned_level integer      NOT NULL,
+    last_answered timestamp(6),
+    ease          float(53)    NOT NULL,
+    due           timestamp(6),
+    "interval"    integer      NOT NULL,
+    reps          integer      NOT NULL,
+    stability     float(53),
+    difficulty    float(53),
+    status        varchar(255) NOT NULL CHECK (status IN ('READY', 'IN_DECK')),
+    CONSTRAINT pk_users_progress PRIMARY KEY (user_id, card_id)
+) PARTITION BY HASH (user_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE users_progress_p%s PARTITION OF users_progress FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+    END LOOP;
+END $$;
+
+INSERT INTO users_progress (user_id, card_id, learned_level, last_answered, ease, due, "interval", reps, stability, difficulty, status)
+SELECT user_id, card_id, learned_level, last_answered, ease, due, "interval", reps, stability, difficulty, status
+FROM users_progress_unpartitioned;
+
+DROP TABLE users_progress_unpartitioned;
+
+CREATE INDEX idx_users_progress_user_status_due
+    ON users_progress (user_id, status, due) INCLUDE (card_id);
+
+CREATE INDEX idx_users_progress_user_answered
+    ON users_progress (user_id, last_answered) WHERE last_answered IS NOT NULL;
+
+-- Холодне сховище: один рядок на неактивного користувача, прогрес стиснутий у jsonb-масив
+-- [card_id, learned_level, last_answered, ease, due, interval, reps, stability, difficulty, status]
+CREATE TABLE users_progress_archive (
+    user_id     bigint       PRIMARY KEY REFERENCES users (id),
+    archived_at timestamp(6) NOT NULL,
+    row_count   integer      NOT NULL,
+    payload     jsonb        NOT NULL
+);
+
+ALTER TABLE users ADD COLUMN progress_archived boolean NOT NULL DEFAULT false;
@@ -0,0 +1,15 @@
+-- Версія рядка прогресу для оптимістичного блокування: паралельна відповідь на ту саму колоду
+-- оновлює 0 рядків і відхиляється, а не чекає на блокування і не множить reps/ease
+ALTER TABLE users_progress ADD COLUMN version bigint NOT NULL DEFAULT 0;
+
+-- Результати POST /api/learn/answer за Idempotency-Key; рядок пишеться в тій самій транзакції, що й прогрес
+CREATE TABLE idempotency_keys (
+    user_id         bigint       NOT NULL REFERENCES users (id),
+    idempotency_key varchar(255) NOT NULL,
+    request_hash    varchar(64)  NOT NULL,
+    response        jsonb        NOT NULL,
+    created_at      timestamp(6) NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,42 @@
+-- Ключ картки - (слово, тип) після trim і lower, як у CardImportService. Унікальний індекс не дає
+-- двом паралельним імпортам вставити ту саму картку, а вставка батчем пропускає її через ON CONFLICT DO NOTHING
+
+-- Спершу зливаємо вже наявні дублікати в картку з найменшим id
+CREATE TEMPORARY TABLE card_duplicates ON COMMIT DROP AS
+SELECT id, keep_id
+FROM (SELECT id, min(id) OVER (PARTITION BY lower(trim(word)), lower(trim(type))) AS keep_id FROM cards) c
+WHERE id <> keep_id;
+
+-- Прогрес по дублікату переноситься на картку, що лишається, якщо в користувача його там ще немає
+DELETE FROM users_progress up
+USING card_duplicates d
+WHERE up.card_id = d.id
+  AND EXISTS (SELECT 1 FROM users_progress kept WHERE kept.user_id = up.user_id AND kept.card_id = d.keep_id);
+
+DELETE FROM users_progress up
+USING card_duplicates d
+WHERE up.card_id = d.id
+  AND EXISTS (SELECT 1 FROM users_progress other
+              JOIN card_duplicates od ON od.id = other.card_id
+              WHERE other.user_id = up.user_id AND od.keep_id = d.keep_id AND other.card_id < up.card_id);
+
+UPDATE users_progress up
+SET card_id = d.keep_id
+FROM card_duplicates d
+WHERE up.card_id = d.id;
+
+-- В архіві id картки - перший елемент кожного запису; повторні записи відкине ON CONFLICT при відновленні
+UPDATE users_progress_archive a
+SET payload = (SELECT jsonb_agg(CASE WHEN d.keep_id IS NULL THEN e ELSE jsonb_set(e, '{0}', to_jsonb(d.keep_id)) END)
+               FROM jsonb_array_elements(a.payload) e
+               LEFT JOIN card_duplicates d ON d.id = (e->>0)::bigint)
+WHERE EXISTS (SELECT 1 FROM jsonb_array_elements(a.payload) e
+              JOIN card_duplicates d ON d.id = (e->>0)::bigint);
+
+DELETE FROM cards c USING card_duplicates d WHERE c.id = d.id;
+
+-- Пошук наявних слів при імпорті (lower(trim(word)) = ANY (?)) іде першою колонкою нового індексу
+DROP INDEX IF EXISTS idx_cards_word_normalized;
+
+CREATE UNIQUE INDEX uq_cards_word_type_normalized
+    ON cards (lower(trim(word)), lower(trim(type)));
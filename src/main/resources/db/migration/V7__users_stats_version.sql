@@ -0,0 +1,3 @@
+-- Версія рядка статистики: злиття дельт, нічна звірка і перехід періодів пишуть той самий рядок,
+-- тож запис зі застарілого знімка відхиляється і повторюється з перечитаним рядком
+ALTER TABLE users_stats ADD COLUMN version bigint NOT NULL DEFAULT 0;
@@ -112,13 +112,18 @@ function initLearnPage() {
     }
 
     function submitAnswers() {
-        fetch('/api/learn/answer', {
+        // Повтор після мережевої помилки йде з тим самим ключем, тож сервер не зарахує відповіді двічі
+        const idempotencyKey = crypto.randomUUID();
+        const send = () => fetch('/api/learn/answer', {
             method: 'POST',
             headers: {
-                'Content-Type': 'application/json'
+                'Content-Type': 'application/json',
+                'Idempotency-Key': idempotencyKey
             },
             body: JSON.stringify(answers)
-        })
+        });
+        send()
+            .catch(() => send())
             .catch(error => console.error('Error submitting answers:', error));
     }
 
@@ -0,0 +1,72 @@
+package com.example.coursework;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AnswerIdempotencyTests extends DatabaseTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void repeatedSubmissionWithSameKeyIsReplayed() throws Exception {
+        String username = createUser("idempotency").getUsername();
+        importCards("replay", 10);
+
+        String deck = mockMvc.perform(get("/api/learn/get-cards").with(user(username)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Map<String, Boolean> answers = new LinkedHashMap<>();
+        for (JsonNode card : objectMapper.readTree(deck)) {
+            answers.put(card.get("cardId").asText(), true);
+        }
+        String key = UUID.randomUUID().toString();
+
+        String first = mockMvc.perform(post("/api/learn/answer").with(user(username))
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(answers)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Колода вже відповідена, тож без ключа повтор повернув би порожній список, а з ключем - той самий результат
+        String replay = mockMvc.perform(post("/api/learn/answer").with(user(username))
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(answers)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(objectMapper.readTree(first), objectMapper.readTree(replay));
+
+        answers.replaceAll((cardId, correct) -> false);
+        mockMvc.perform(post("/api/learn/answer").with(user(username))
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(answers)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.coursework;
+
+import com.example.coursework.model.Card;
+import com.example.coursework.repository.CardImportRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class CardImportTests extends DatabaseTestSupport {
+
+    @Autowired
+    private CardImportRepository cardImportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Паралельний імпорт, що проскочив попередню перевірку, не додає другу картку з тим самим ключем
+    @Test
+    void batchInsertSkipsCardsThatAlreadyExist() {
+        String wordPrefix = importCards("import", 1);
+        String word = wordPrefix + "0";
+
+        Card duplicate = card("  " + word.toUpperCase() + " ", "Noun");
+        Card fresh = card(wordPrefix + "fresh", "noun");
+        List<Long> ids = cardImportRepository.allocateIds(2);
+        duplicate.setId(ids.get(0));
+        fresh.setId(ids.get(1));
+
+        List<Card> inserted = cardImportRepository.insertBatch(List.of(duplicate, fresh));
+
+        assertEquals(List.of(fresh), inserted);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM cards WHERE lower(trim(word)) = lower(?)", Integer.class, word));
+    }
+
+    @Test
+    void uniqueIndexRejectsDuplicateCardOutsideImport() {
+        String word = importCards("import", 1) + "0";
+
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+                "INSERT INTO cards (word, sentence, translation, synonyms, type) VALUES (?, 's', 't', '', 'NOUN')",
+                word.toUpperCase()));
+    }
+
+    private static Card card(String word, String type) {
+        Card card = new Card();
+        card.setWord(word);
+        card.setSentence("Sentence");
+        card.setTranslation("переклад");
+        card.setSynonyms("");
+        card.setType(type);
+        return card;
+    }
+}
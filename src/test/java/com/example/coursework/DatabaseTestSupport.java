@@ -0,0 +1,147 @@
+package com.example.coursework;
+
+import com.example.coursework.cache.CurrentUserCache;
+import com.example.coursework.model.Role;
+import com.example.coursework.model.User;
+import com.example.coursework.repository.RoleRepository;
+import com.example.coursework.search.CardSearchIndex;
+import com.example.coursework.service.CardImportFormat;
+import com.example.coursework.service.CardImportService;
+import com.example.coursework.service.StatsRecomputeService;
+import com.example.coursework.service.UserService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Спільна основа @SpringBootTest: вбудований PostgreSQL, один на JVM, схему накочує Flyway з нуля.
+// Тести не торкаються локальної LearnLingua, а створені фікстурою користувачі й картки видаляються після кожного тесту
+public abstract class DatabaseTestSupport {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    protected UserService userService;
+
+    @Autowired
+    protected CardImportService cardImportService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardSearchIndex cardSearchIndex;
+
+    @Autowired
+    private CurrentUserCache currentUserCache;
+
+    @Autowired
+    private StatsRecomputeService statsRecomputeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<User> createdUsers = new ArrayList<>();
+    private final List<String> cardPrefixes = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void embeddedDatabase(DynamicPropertyRegistry registry) {
+        EmbeddedPostgres database = database();
+        registry.add("spring.datasource.url", () -> database.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    protected static synchronized EmbeddedPostgres database() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // процес і так завершується
+                }
+            }));
+        }
+        return postgres;
+    }
+
+    // Роль USER у продакшені заводиться вручну, тож фікстура створює її сама
+    protected User createUser(String prefix) {
+        if (roleRepository.findByName("USER").isEmpty()) {
+            Role role = new Role();
+            role.setName("USER");
+            roleRepository.save(role);
+        }
+        User user = userService.createUser(prefix + "-" + UUID.randomUUID(), "password");
+        createdUsers.add(user);
+        return user;
+    }
+
+    // Слова з унікальним префіксом, щоб імпорт не відкинув їх як дублікати і щоб їх можна було прибрати
+    protected String importCards(String prefix, int count) {
+        String wordPrefix = prefix + UUID.randomUUID().toString().substring(0, 8) + "-";
+        cardPrefixes.add(wordPrefix);
+        StringBuilder csv = new StringBuilder("word,sentence,translation,synonyms,type\n");
+        for (int i = 0; i < count; i++) {
+            csv.append(wordPrefix).append(i).append(",Sentence ").append(i).append(",переклад,,noun\n");
+        }
+        try {
+            cardImportService.importCards(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), CardImportFormat.CSV, 100);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return wordPrefix;
+    }
+
+    @AfterEach
+    void deleteFixtureData() {
+        for (User user : createdUsers) {
+            Long userId = user.getId();
+            statsRecomputeService.discard(userId);
+            deleteUserRows(userId);
+            currentUserCache.invalidate(user.getUsername());
+        }
+        createdUsers.clear();
+
+        for (String prefix : cardPrefixes) {
+            List<Long> cardIds = jdbcTemplate.queryForList("SELECT id FROM cards WHERE word LIKE ?", Long.class, prefix + "%");
+            for (Long cardId : cardIds) {
+                jdbcTemplate.update("DELETE FROM users_progress WHERE card_id = ?", cardId);
+                jdbcTemplate.update("DELETE FROM cards WHERE id = ?", cardId);
+                cardSearchIndex.remove(cardId);
+            }
+        }
+        cardPrefixes.clear();
+        // Видалення йшло повз Hibernate, тож кеш карток і запитів по каталогу застарів
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+    }
+
+    private void deleteUserRows(Long userId) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users_progress WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users_progress_archive WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users_daily_stats WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users_stats WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users_roles WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.coursework;
+
+import com.example.coursework.model.CardStatus;
+import com.example.coursework.model.User;
+import com.example.coursework.repository.UserProgressRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DeckAssemblyLockTests extends DatabaseTestSupport {
+
+    private static final int TABS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Test
+    void concurrentTabsAssembleOneDeck() throws Exception {
+        User created = createUser("deck-lock");
+        String username = created.getUsername();
+        importCards("tab", 20);
+
+        ExecutorService executor = Executors.newFixedThreadPool(TABS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tabs = new ArrayList<>();
+        try {
+            for (int i = 0; i < TABS; i++) {
+                tabs.add(executor.submit(() -> {
+                    start.await();
+                    mockMvc.perform(get("/api/learn/get-cards").with(user(username)))
+                            .andExpect(status().isOk());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> tab : tabs) {
+                tab.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Без блокування кожна вкладка, що не побачила повної колоди, додала б ще п'ять карток
+        assertEquals(5, userProgressRepository.countByUserAndStatus(created, CardStatus.IN_DECK));
+    }
+}
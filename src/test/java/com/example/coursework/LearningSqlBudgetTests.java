@@ -0,0 +1,39 @@
+package com.example.coursework;
+
+import com.example.coursework.jdbc.SqlStatementBudget;
+import com.example.coursework.jdbc.SqlStatementHeaderAdvice;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LearningSqlBudgetTests extends DatabaseTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getCardsStaysWithinStatementBudget() throws Throwable {
+        String username = createUser("sql-budget").getUsername();
+        importCards("budget", 10);
+
+        // Нова колода: користувач з ролями, IN_DECK, повторне IN_DECK під блокуванням, READY, нові картки і один пакетний INSERT
+        SqlStatementBudget.assertAtMost(8, "get-cards (new deck)", () ->
+                mockMvc.perform(get("/api/learn/get-cards").with(user(username)))
+                        .andExpect(status().isOk())
+                        .andExpect(header().exists(SqlStatementHeaderAdvice.STATEMENT_COUNT_HEADER)));
+
+        // Повна колода: користувач з кешу і один запит IN_DECK
+        SqlStatementBudget.assertAtMost(2, "get-cards (full deck)", () ->
+                mockMvc.perform(get("/api/learn/get-cards").with(user(username)))
+                        .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.coursework;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class LoggingConfigurationTests {
+
+    // До root підключені лише асинхронні обгортки: синхронний запис на потоці запиту і дубль рядків неможливі
+    @Test
+    @SuppressWarnings("unchecked")
+    void rootLogsOnlyThroughAsyncAppenders() throws Exception {
+        LoggerContext context = new LoggerContext();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(getClass().getResource("/logback-spring.xml"));
+        try {
+            List<String> names = new ArrayList<>();
+            Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+            while (appenders.hasNext()) {
+                Appender<ILoggingEvent> appender = appenders.next();
+                assertInstanceOf(AsyncAppender.class, appender);
+                names.add(appender.getName());
+            }
+            assertEquals(List.of("ASYNC_CONSOLE", "ASYNC_FILE"), names);
+
+            AsyncAppender asyncFile = (AsyncAppender) context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC_FILE");
+            RollingFileAppender<ILoggingEvent> file = (RollingFileAppender<ILoggingEvent>) asyncFile.getAppender("FILE");
+            assertEquals("logs/application.log", file.getFile());
+        } finally {
+            context.stop();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.coursework;
+
+import com.example.coursework.dto.ProgressExportRowDto;
+import com.example.coursework.model.User;
+import com.example.coursework.repository.ProgressArchiveRepository;
+import com.example.coursework.repository.ProgressExportRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProgressArchiveTests extends DatabaseTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProgressArchiveRepository progressArchiveRepository;
+
+    @Autowired
+    private ProgressExportRepository progressExportRepository;
+
+    @Test
+    void archivedProgressIsRestoredEvenWithStaleUserSnapshot() throws Exception {
+        User created = createUser("archive");
+        String username = created.getUsername();
+        importCards("archive", 10);
+
+        String deck = mockMvc.perform(get("/api/learn/get-cards").with(user(username)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Map<String, Boolean> answers = new LinkedHashMap<>();
+        for (JsonNode card : objectMapper.readTree(deck)) {
+            answers.put(card.get("cardId").asText(), true);
+        }
+        mockMvc.perform(post("/api/learn/answer").with(user(username))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(answers)))
+                .andExpect(status().isOk());
+
+        // Архівуємо напряму, як це зробив би інший вузол: кешований знімок користувача про це не знає
+        progressArchiveRepository.archiveInactive(created.getId() - 1, created.getId(), LocalDateTime.now().plusDays(1));
+        assertEquals(0, answeredRows(created));
+
+        mockMvc.perform(get("/api/learn/get-cards").with(user(username)))
+                .andExpect(status().isOk());
+
+        assertEquals(answers.size(), answeredRows(created));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users_progress_archive WHERE user_id = ?", Integer.class, created.getId()));
+    }
+
+    // Експорт читає і архів: історія неактивного користувача не зникає, а курсор продовження працює поверх обох таблиць
+    @Test
+    void exportIncludesArchivedProgress() {
+        User created = createUser("archive");
+        String wordPrefix = importCards("archive", 10);
+        jdbcTemplate.update("INSERT INTO users_progress (user_id, card_id, learned_level, last_answered, ease, due, \"interval\", reps, status) " +
+                "SELECT ?, id, 1, now(), 2.5, now(), 1, 1, 'READY' FROM cards WHERE word LIKE ?", created.getId(), wordPrefix + "%");
+        List<ProgressExportRowDto> before = export(created.getId(), null);
+
+        progressArchiveRepository.archiveInactive(created.getId() - 1, created.getId(), LocalDateTime.now().plusDays(1));
+        assertEquals(0, answeredRows(created));
+
+        List<ProgressExportRowDto> after = export(created.getId(), null);
+        assertEquals(10, before.size());
+        assertEquals(before, after);
+
+        ProgressExportRowDto middle = after.get(4);
+        assertEquals(after.subList(5, after.size()), export(created.getId(), new long[]{middle.getUserId(), middle.getCardId()}));
+    }
+
+    private List<ProgressExportRowDto> export(Long userId, long[] afterKey) {
+        List<ProgressExportRowDto> rows = new ArrayList<>();
+        progressExportRepository.streamProgress(userId, null,
+                afterKey == null ? null : afterKey[0], afterKey == null ? null : afterKey[1], rows::add);
+        return rows;
+    }
+
+    private int answeredRows(User user) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users_progress WHERE user_id = ? AND last_answered IS NOT NULL", Integer.class, user.getId());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.coursework;
+
+import com.example.coursework.jdbc.ReadYourWritesTracker;
+import com.example.coursework.model.User;
+import com.example.coursework.scheduling.FsrsAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Репліка - окремий пул лише для читання до тієї ж бази: запис, що потрапив би туди, падає
+@SpringBootTest(properties = {
+        "spring.jpa.open-in-view=false",
+        "learnlingua.datasource.read.read-your-writes-window=300ms"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingTests extends DatabaseTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("learnlingua.datasource.read.url",
+                () -> database().getJdbcUrl("postgres", "postgres") + "&ApplicationName=replica");
+        registry.add("learnlingua.datasource.read.username", () -> "postgres");
+        registry.add("learnlingua.datasource.read.password", () -> "");
+    }
+
+    // Читання користувача йде readOnly-транзакцією на репліку, а зміна алгоритму в тому ж запиті - на primary
+    @Test
+    void writeAfterReadOnlyTransactionInOneRequestGoesToPrimary() throws Exception {
+        User created = createUser("routing");
+        Thread.sleep(400); // вікно read-your-writes після реєстрації минуло
+        double replicaBefore = routed("replica");
+        double primaryBefore = routed("primary");
+
+        mockMvc.perform(put("/api/learn/algorithm").param("name", FsrsAlgorithm.NAME).with(user(created.getUsername())))
+                .andExpect(status().isOk());
+
+        assertTrue(routed("replica") > replicaBefore);
+        assertTrue(routed("primary") > primaryBefore);
+        assertEquals(FsrsAlgorithm.NAME, jdbcTemplate.queryForObject(
+                "SELECT scheduling_algorithm FROM users WHERE id = ?", String.class, created.getId()));
+    }
+
+    // Вхід читає з репліки, але не в перші миті після реєстрації, поки репліка може не мати рядка
+    @Test
+    void loginRightAfterRegistrationReadsFromPrimary() throws Exception {
+        User created = createUser("routing");
+        assertTrue(readYourWritesTracker.recentlyWrote(created.getUsername()));
+        double replicaBefore = routed("replica");
+
+        userDetailsService.loadUserByUsername(created.getUsername());
+        assertEquals(replicaBefore, routed("replica"));
+
+        Thread.sleep(400);
+        userDetailsService.loadUserByUsername(created.getUsername());
+        assertTrue(routed("replica") > replicaBefore);
+    }
+
+    private double routed(String target) {
+        return meterRegistry.counter("learnlingua.datasource.routed", "target", target).count();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.coursework;
+
+import com.example.coursework.metrics.LearningMetrics;
+import com.example.coursework.model.User;
+import com.example.coursework.model.UserStats;
+import com.example.coursework.repository.UserStatsRepository;
+import com.example.coursework.service.StatsDelta;
+import com.example.coursework.service.StatsReconciliationService;
+import com.example.coursework.service.StatsRecomputeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+// users_stats пишуть злиття дельт, нічна звірка і перехід періодів; жоден не має затирати чи дублювати інших
+@SpringBootTest(properties = "learnlingua.stats.recompute-window=10ms")
+class StatsWritersTests extends DatabaseTestSupport {
+
+    @SpyBean
+    private LearningMetrics learningMetrics;
+
+    @Autowired
+    private StatsRecomputeService statsRecomputeService;
+
+    @Autowired
+    private StatsReconciliationService statsReconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reconcileWaitsForFlushAlreadyInFlight() throws Exception {
+        User user = createUser("stats");
+        String wordPrefix = importCards("stats", 3);
+        jdbcTemplate.update("INSERT INTO users_progress (user_id, card_id, learned_level, last_answered, ease, due, \"interval\", reps, status) " +
+                "SELECT ?, id, 1, now(), 2.5, now(), 1, 1, 'READY' FROM cards WHERE word LIKE ?", user.getId(), wordPrefix + "%");
+
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch flushFinished = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            invocation.callRealMethod();
+            flushFinished.countDown();
+            return null;
+        }).when(learningMetrics).timePhase(eq("record-stats"), any(Runnable.class));
+
+        // Три нові слова, відповіді на які вже закомічені в users_progress
+        statsRecomputeService.enqueue(user.getId(), StatsDelta.of(Arrays.asList(null, null, null), LocalDate.now()));
+        assertTrue(flushStarted.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(() -> statsReconciliationService.reconcile(user.getId()));
+        Thread.sleep(200);
+        release.countDown();
+        reconcile.get(10, TimeUnit.SECONDS);
+        assertTrue(flushFinished.await(5, TimeUnit.SECONDS));
+
+        Map<String, Object> stats = jdbcTemplate.queryForMap(
+                "SELECT total_words_learned, words_learned_today FROM users_stats WHERE user_id = ?", user.getId());
+        assertEquals(3L, stats.get("total_words_learned"));
+        assertEquals(3L, stats.get("words_learned_today"));
+        assertEquals(3L, jdbcTemplate.queryForObject(
+                "SELECT SUM(words_learned) FROM users_daily_stats WHERE user_id = ?", Long.class, user.getId()));
+    }
+
+    // Запис, що прочитав рядок до нічного переходу, відхиляється і не повертає вчорашні лічильники
+    @Test
+    void writerThatReadBeforeRolloverCannotUndoIt() {
+        User user = createUser("stats");
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.update("INSERT INTO users_stats (user_id, total_words_learned, words_learned_today, words_learned_this_week, " +
+                "words_learned_this_month, last_updated_date) VALUES (?, 5, 5, 5, 5, ?)", user.getId(), today.minusDays(1));
+        Long statsId = jdbcTemplate.queryForObject("SELECT id FROM users_stats WHERE user_id = ?", Long.class, user.getId());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            UserStats stale = userStatsRepository.findByUserId(user.getId()).orElseThrow();
+            CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(rollover ->
+                    userStatsRepository.rollOverPeriods(statsId - 1, statsId, today, today, today))).join();
+            stale.setTotalWordsLearned(stale.getTotalWordsLearned() + 1);
+            userStatsRepository.saveAndFlush(stale);
+        }));
+
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT words_learned_today FROM users_stats WHERE user_id = ?", Long.class, user.getId()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.coursework.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TransactionConcurrencyLimiterTests {
+
+    private final PlatformTransactionManager limited = (PlatformTransactionManager) new TransactionConcurrencyLimiter(
+            emptyRegistry(), 1, Duration.ofMillis(100))
+            .postProcessAfterInitialization(mock(PlatformTransactionManager.class), "transactionManager");
+
+    @Test
+    void nestedTransactionsInOneThreadShareAPermit() {
+        TransactionTemplate outer = new TransactionTemplate(limited);
+        TransactionTemplate inner = new TransactionTemplate(limited);
+        inner.setPropagationBehavior(DefaultTransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        outer.executeWithoutResult(status -> inner.executeWithoutResult(nested -> {
+        }));
+
+        // Дозвіл повернувся: наступна транзакція в іншому потоці його отримує
+        assertTrue(CompletableFuture.supplyAsync(() -> limited.getTransaction(new DefaultTransactionDefinition()))
+                .thenApply(status -> true).join());
+    }
+
+    @Test
+    void programmaticTransactionHoldsThePermitUntilCommit() throws Exception {
+        TransactionStatus first = limited.getTransaction(new DefaultTransactionDefinition());
+
+        CompletableFuture<TransactionStatus> second = CompletableFuture.supplyAsync(
+                () -> limited.getTransaction(new DefaultTransactionDefinition()));
+        Throwable rejected = assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS)).getCause();
+        assertInstanceOf(TransactionCapacityExceededException.class, rejected);
+
+        limited.commit(first);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MeterRegistry> emptyRegistry() {
+        return mock(ObjectProvider.class);
+    }
+}
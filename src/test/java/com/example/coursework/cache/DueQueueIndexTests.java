@@ -0,0 +1,85 @@
+package com.example.coursework.cache;
+
+import com.example.coursework.model.Card;
+import com.example.coursework.model.CardStatus;
+import com.example.coursework.model.UserProgress;
+import com.example.coursework.repository.UserProgressRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DueQueueIndexTests {
+
+    private final UserProgressRepository userProgressRepository = mock(UserProgressRepository.class);
+    private final DueQueueIndex index = new DueQueueIndex(userProgressRepository, true, Duration.ofMinutes(15), 100, 100);
+
+    @Test
+    void deletedCardLeavesEveryUsersQueue() {
+        LocalDateTime now = LocalDateTime.now();
+        when(userProgressRepository.findDueEntriesByUserIdAndStatus(anyLong(), eq(CardStatus.READY), any()))
+                .thenReturn(List.of(new Object[]{10L, now.minusHours(2)}, new Object[]{20L, now.minusHours(1)}));
+        index.peekDue(1L, 5);
+        index.peekDue(2L, 5);
+
+        index.removeCard(10L);
+
+        assertArrayEquals(new long[]{20L}, index.peekDue(1L, 5));
+        assertArrayEquals(new long[]{20L}, index.peekDue(2L, 5));
+    }
+
+    @Test
+    void fullQueueEvictsLatestCardAndBecomesTruncated() {
+        DueQueue queue = new DueQueue(2, Long.MAX_VALUE, 2);
+        queue.offer(1L, 100);
+        queue.offer(2L, 200);
+        assertFalse(queue.isTruncated());
+
+        queue.offer(3L, 50);
+        assertEquals(2, queue.size());
+        assertArrayEquals(new long[]{3L, 1L}, queue.peekFirst(5));
+        assertTrue(queue.isTruncated());
+
+        // Пізніша за межу картка не потрапляє в чергу
+        queue.offer(4L, 300);
+        assertArrayEquals(new long[]{3L, 1L}, queue.peekFirst(5));
+    }
+
+    // Відповіді в межах сесії не роздувають чергу понад ліміт: вона обрізається і далі дочитує базу
+    @Test
+    void rescheduledCardsAreTrimmedToTheCap() {
+        DueQueueIndex capped = new DueQueueIndex(userProgressRepository, true, Duration.ofMinutes(15), 100, 2);
+        LocalDateTime now = LocalDateTime.now();
+        when(userProgressRepository.findDueEntriesByUserIdAndStatus(anyLong(), eq(CardStatus.READY), any()))
+                .thenReturn(List.of(new Object[]{10L, now.minusHours(2)}, new Object[]{20L, now.minusHours(1)}));
+        capped.peekDue(1L, 2);
+
+        capped.reschedule(1L, List.of(progress(30L, now.minusHours(3)), progress(40L, now.minusHours(4))));
+
+        assertArrayEquals(new long[]{40L, 30L}, capped.peekDue(1L, 2));
+        capped.peekDue(1L, 3);
+        verify(userProgressRepository, times(2)).findDueEntriesByUserIdAndStatus(anyLong(), eq(CardStatus.READY), any());
+    }
+
+    private static UserProgress progress(long cardId, LocalDateTime due) {
+        Card card = new Card();
+        card.setId(cardId);
+        UserProgress progress = new UserProgress();
+        progress.setCard(card);
+        progress.setDue(due);
+        return progress;
+    }
+}
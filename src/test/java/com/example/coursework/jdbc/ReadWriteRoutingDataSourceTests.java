@@ -0,0 +1,99 @@
+package com.example.coursework.jdbc;
+
+import com.example.coursework.config.DataSourceRoutingConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ReadWriteRoutingDataSourceTests {
+
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReadWriteRoutingDataSource(mock(DataSource.class), mock(DataSource.class),
+                new ReadYourWritesTracker(Duration.ofMinutes(1), 100), new SimpleMeterRegistry());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void writeTransactionsGoToPrimary() {
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routing.route());
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routing.route());
+    }
+
+    @Test
+    void readsAfterOwnCommittedWriteStayOnPrimary() {
+        authenticate("writer");
+        routing.route();
+        // Поки транзакція не закомічена, вікно не відкривається
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routing.route());
+
+        commit();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routing.route());
+
+        authenticate("reader");
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routing.route());
+    }
+
+    // Сесія open-in-view тримала б перше з'єднання весь запит, тож маршрутизація з нею не стартує
+    @Test
+    void routingRefusesToStartWithOpenInView() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(DataSourceRoutingConfiguration.class)
+                .withPropertyValues("learnlingua.datasource.read.url=jdbc:postgresql://localhost:5433/LearnLingua")
+                .run(context -> {
+                    Throwable cause = rootCause(context.getStartupFailure());
+                    assertInstanceOf(IllegalStateException.class, cause);
+                    assertTrue(cause.getMessage().contains("spring.jpa.open-in-view=false"));
+                });
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clear();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.coursework.jdbc;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// База, яку до Flyway вела ddl-auto=update: baseline на версії 1 має докотити всі наступні міграції
+class SchemaMigrationTests {
+
+    private EmbeddedPostgres postgres;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void databaseBaselinedAtPreFlywaySchemaMigratesToCurrent() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-schema.sql")).execute(dataSource);
+        jdbcTemplate.update("INSERT INTO users (username, password) VALUES ('old-user', 'x')");
+        jdbcTemplate.update("INSERT INTO cards (word, sentence, translation, synonyms, type) VALUES ('apple', 's', 't', '', 'noun')");
+        jdbcTemplate.update("INSERT INTO users_progress (user_id, card_id, learned_level, last_answered, ease, due, interval, reps, status) " +
+                "SELECT u.id, c.id, 2, now(), 2.5, now(), 3, 2, 'READY' FROM users u, cards c");
+        jdbcTemplate.update("INSERT INTO users_stats (user_id, total_words_learned, words_learned_today, words_learned_this_week, " +
+                "words_learned_this_month) SELECT id, 1, 1, 1, 1 FROM users");
+
+        // Ті самі налаштування, що й spring.flyway.* у application.properties
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertEquals(List.of(), new SchemaVerifier(dataSource, null, "fail").findProblems());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users_progress WHERE learned_level = 2 AND stability IS NULL", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM users_stats WHERE computed_at IS NULL", Integer.class));
+    }
+
+    @Test
+    void emptyDatabaseMigratesToCurrent() {
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertEquals(List.of(), new SchemaVerifier(dataSource, null, "fail").findProblems());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.coursework.jdbc;
+
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Бюджет SQL для тестів: дія має виконати не більше maxStatements запитів до бази
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    public static int assertAtMost(int maxStatements, String description, Executable action) throws Throwable {
+        int statements;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            action.execute();
+            statements = scope.getStatements();
+        }
+        int actual = statements;
+        assertTrue(actual <= maxStatements,
+                () -> description + " issued " + actual + " SQL statements, budget is " + maxStatements);
+        return actual;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.coursework.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankedSkipListTests {
+
+    @Test
+    void ranksByScoreDescendingThenUserId() {
+        RankedSkipList list = new RankedSkipList();
+        list.put(3, 50);
+        list.put(1, 70);
+        list.put(2, 50);
+        list.put(4, 10);
+
+        assertEquals(List.of(
+                new RankedSkipList.Entry(1, 1, 70),
+                new RankedSkipList.Entry(2, 2, 50),
+                new RankedSkipList.Entry(3, 3, 50),
+                new RankedSkipList.Entry(4, 4, 10)), list.range(1, 10));
+        assertEquals(new RankedSkipList.Entry(3, 3, 50), list.find(3));
+        assertEquals(List.of(new RankedSkipList.Entry(2, 2, 50)), list.range(2, 1));
+    }
+
+    @Test
+    void scoreUpdateAndRemovalKeepRanksConsistent() {
+        RankedSkipList list = new RankedSkipList();
+        list.put(1, 10);
+        list.put(2, 20);
+        list.put(3, 30);
+
+        list.put(1, 40);
+        assertEquals(1, list.find(1).rank());
+        assertEquals(3, list.size());
+
+        list.remove(3);
+        list.remove(42);
+        assertNull(list.find(3));
+        assertEquals(2, list.size());
+        assertEquals(2, list.find(2).rank());
+    }
+
+    @Test
+    void outOfRangeReturnsNothing() {
+        RankedSkipList list = new RankedSkipList();
+        list.put(1, 10);
+        assertTrue(list.range(0, 5).isEmpty());
+        assertTrue(list.range(2, 5).isEmpty());
+        assertTrue(list.range(1, 0).isEmpty());
+    }
+
+    // Випадкові вставки, оновлення і видалення порівнюються з відсортованим списком
+    @Test
+    void matchesSortedReferenceUnderRandomChanges() {
+        Random random = new Random(42);
+        RankedSkipList list = new RankedSkipList();
+        Map<Long, Long> scores = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long userId = random.nextInt(500);
+            if (random.nextInt(5) == 0) {
+                list.remove(userId);
+                scores.remove(userId);
+            } else {
+                long score = random.nextInt(100);
+                list.put(userId, score);
+                scores.put(userId, score);
+            }
+        }
+
+        List<Long> expected = new ArrayList<>(scores.keySet());
+        expected.sort(Comparator.comparing((Long id) -> scores.get(id)).reversed().thenComparing(id -> id));
+        assertEquals(expected.size(), list.size());
+
+        List<RankedSkipList.Entry> all = list.range(1, expected.size());
+        for (int rank = 1; rank <= expected.size(); rank++) {
+            long userId = expected.get(rank - 1);
+            RankedSkipList.Entry entry = new RankedSkipList.Entry(rank, userId, scores.get(userId));
+            assertEquals(entry, all.get(rank - 1));
+            assertEquals(entry, list.find(userId));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.coursework.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FsrsAlgorithmTests {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final long DAY = 24 * 60 * 60;
+
+    private final FsrsAlgorithm algorithm = new FsrsAlgorithm();
+
+    // Нова картка: стабільність і складність з початкових ваг для Good, інтервал при retention 0.9 = стабільності
+    @Test
+    void firstCorrectReviewUsesInitialWeights() {
+        ReviewState next = algorithm.next(fresh(), true, NOW);
+        assertEquals(1, next.reps());
+        assertEquals(3.7145, next.stability(), 1e-9);
+        assertEquals(5.1618, next.difficulty(), 1e-9);
+        assertEquals(4, next.interval());
+        assertEquals(4 * DAY, next.delaySeconds());
+        assertEquals(2.5, next.ease(), 1e-9);
+    }
+
+    @Test
+    void firstWrongReviewRelearnsInAMinute() {
+        ReviewState next = algorithm.next(fresh(), false, NOW);
+        assertEquals(0, next.reps());
+        assertEquals(0.4872, next.stability(), 1e-9);
+        assertEquals(7.6214, next.difficulty(), 1e-9);
+        assertEquals(1, next.interval());
+        assertEquals(60, next.delaySeconds());
+    }
+
+    @Test
+    void intervalIsClampedToOneDayAndOneYear() {
+        // Повтор одразу після відповіді стабільність не змінює: 0.2 дня округлюється до нуля
+        ReviewState unstable = new ReviewState(1, 1, 2.5, 0.2, 5, NOW, 0);
+        assertEquals(1, algorithm.next(unstable, true, NOW).interval());
+
+        ReviewState stable = new ReviewState(10, 365, 2.5, 1000, 5, NOW - 365 * DAY, 0);
+        ReviewState next = algorithm.next(stable, true, NOW);
+        assertTrue(next.stability() > 365);
+        assertEquals(365, next.interval());
+        assertEquals(365 * DAY, next.delaySeconds());
+    }
+
+    // Картка з історією SM-2 не починає спочатку: стабільність береться з поточного інтервалу
+    @Test
+    void sm2CardMigratesWithStabilityFromInterval() {
+        ReviewState sm2 = new ReviewState(5, 20, 2.5, 0, 0, NOW - 20 * DAY, 0);
+        ReviewState seeded = new ReviewState(5, 20, 2.5, 20, 5.1618, NOW - 20 * DAY, 0);
+
+        ReviewState migrated = algorithm.next(sm2, true, NOW);
+        assertEquals(algorithm.next(seeded, true, NOW), migrated);
+        assertEquals(6, migrated.reps());
+        assertTrue(migrated.interval() > 20);
+        assertEquals(5.1618, migrated.difficulty(), 1e-9);
+    }
+
+    @Test
+    void previewMatchesNextState() {
+        ReviewState sm2 = new ReviewState(5, 20, 2.5, 0, 0, NOW - 20 * DAY, 0);
+        for (ReviewState state : new ReviewState[]{fresh(), sm2, new ReviewState(3, 9, 2.5, 8.5, 4.2, NOW - 3 * DAY, 0)}) {
+            for (boolean correct : new boolean[]{true, false}) {
+                assertEquals(algorithm.next(state, correct, NOW).delaySeconds(),
+                        algorithm.previewDelaySeconds(state, correct, NOW));
+            }
+        }
+    }
+
+    private static ReviewState fresh() {
+        return new ReviewState(0, 1, 2.5, 0, 0, ReviewState.NEVER, 0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.coursework.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Поведінка має збігатися з updateProgress, з якого SM-2 винесено в окремий алгоритм
+class Sm2AlgorithmTests {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final long MINUTE = 60;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    private final Sm2Algorithm algorithm = new Sm2Algorithm();
+
+    @Test
+    void firstTwoCorrectAnswersAreShortSteps() {
+        ReviewState first = algorithm.next(state(0, 1, 2.5), true, NOW);
+        assertEquals(1, first.reps());
+        assertEquals(1, first.interval());
+        assertEquals(2.65, first.ease(), 1e-9);
+        assertEquals(10 * MINUTE, first.delaySeconds());
+        assertEquals(NOW, first.lastAnsweredSecond());
+
+        ReviewState second = algorithm.next(first, true, NOW);
+        assertEquals(2, second.reps());
+        assertEquals(6, second.interval());
+        assertEquals(2.8, second.ease(), 1e-9);
+        assertEquals(30 * MINUTE, second.delaySeconds());
+    }
+
+    // Інтервал множиться на ease до нарощування ease і відкидає дробову частину
+    @Test
+    void laterCorrectAnswersMultiplyIntervalByEase() {
+        ReviewState next = algorithm.next(state(2, 6, 2.65), true, NOW);
+        assertEquals(3, next.reps());
+        assertEquals(15, next.interval());
+        assertEquals(2.8, next.ease(), 1e-9);
+        assertEquals(15 * DAY, next.delaySeconds());
+    }
+
+    @Test
+    void intervalIsCappedAtAYear() {
+        ReviewState next = algorithm.next(state(7, 300, 2.5), true, NOW);
+        assertEquals(365, next.interval());
+        assertEquals(365 * DAY, next.delaySeconds());
+    }
+
+    @Test
+    void wrongAnswerResetsAndRetriesInAMinute() {
+        ReviewState next = algorithm.next(state(5, 40, 2.5), false, NOW);
+        assertEquals(0, next.reps());
+        assertEquals(1, next.interval());
+        assertEquals(2.3, next.ease(), 1e-9);
+        assertEquals(MINUTE, next.delaySeconds());
+    }
+
+    @Test
+    void easeNeverDropsBelowMinimum() {
+        assertEquals(1.3, algorithm.next(state(1, 1, 1.4), false, NOW).ease(), 1e-9);
+    }
+
+    @Test
+    void previewMatchesNextState() {
+        for (ReviewState state : new ReviewState[]{state(0, 1, 2.5), state(1, 1, 2.5), state(4, 20, 1.9)}) {
+            for (boolean correct : new boolean[]{true, false}) {
+                assertEquals(algorithm.next(state, correct, NOW).delaySeconds(),
+                        algorithm.previewDelaySeconds(state, correct, NOW));
+            }
+        }
+    }
+
+    private static ReviewState state(int reps, int interval, double ease) {
+        return new ReviewState(reps, interval, ease, 0, 0, ReviewState.NEVER, 0);
+    }
+}
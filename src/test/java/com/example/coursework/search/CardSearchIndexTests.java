@@ -0,0 +1,93 @@
+package com.example.coursework.search;
+
+import com.example.coursework.dto.CardSearchPageDto;
+import com.example.coursework.dto.CardSearchResultDto;
+import com.example.coursework.model.Card;
+import com.example.coursework.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class CardSearchIndexTests {
+
+    private final CardSearchIndex index = new CardSearchIndex(mock(CardRepository.class));
+
+    @BeforeEach
+    void fill() {
+        index.putAll(List.of(
+                card(1L, "house", "будинок", "home, dwelling", "noun"),
+                card(2L, "household", "домогосподарство", "family", "noun"),
+                card(3L, "lighthouse", "маяк", "beacon", "noun"),
+                card(4L, "run", "бігти", "sprint, jog", "verb")));
+    }
+
+    // Точний збіг слова, потім префікс, потім входження
+    @Test
+    void wordMatchesAreRankedExactPrefixSubstring() {
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("House", SearchField.ALL, 0, 10)));
+        assertEquals(List.of(100, 60, 40), index.search("house", SearchField.WORD, 0, 10)
+                .getItems().stream().map(CardSearchResultDto::getScore).toList());
+    }
+
+    @Test
+    void fieldRestrictsWhereTheQueryMatches() {
+        assertEquals(List.of(4L), ids(index.search("jog", SearchField.SYNONYMS, 0, 10)));
+        assertTrue(index.search("jog", SearchField.WORD, 0, 10).getItems().isEmpty());
+        assertEquals(List.of(3L), ids(index.search("маяк", SearchField.TRANSLATION, 0, 10)));
+    }
+
+    // Запит коротший за триграму шукається за префіксами токенів
+    @Test
+    void shortQueryMatchesTokenPrefixes() {
+        assertEquals(List.of(4L), ids(index.search("ru", SearchField.ALL, 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(index.search("ho", SearchField.ALL, 0, 10)));
+    }
+
+    @Test
+    void typoFallsBackToTrigramOverlap() {
+        assertEquals(1L, ids(index.search("housse", SearchField.WORD, 0, 10)).get(0));
+    }
+
+    @Test
+    void removedAndUpdatedCardsLeaveTheIndex() {
+        index.remove(2L);
+        index.put(card(3L, "tower", "вежа", "spire", "noun"));
+
+        assertEquals(List.of(1L), ids(index.search("house", SearchField.ALL, 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("tower", SearchField.ALL, 0, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void pagesAndTotals() {
+        CardSearchPageDto page = index.search("house", SearchField.ALL, 1, 2);
+        assertEquals(3, page.getTotal());
+        assertEquals(List.of(3L), ids(page));
+    }
+
+    @Test
+    void autocompleteSuggestsWordsByPrefix() {
+        assertEquals(List.of(1L, 2L), index.autocomplete("hou", 10).stream().map(CardSearchResultDto::getId).toList());
+        assertEquals(1, index.autocomplete("hou", 1).size());
+        assertTrue(index.autocomplete(" ", 10).isEmpty());
+    }
+
+    private static List<Long> ids(CardSearchPageDto page) {
+        return page.getItems().stream().map(CardSearchResultDto::getId).toList();
+    }
+
+    private static Card card(Long id, String word, String translation, String synonyms, String type) {
+        Card card = new Card();
+        card.setId(id);
+        card.setWord(word);
+        card.setTranslation(translation);
+        card.setSynonyms(synonyms);
+        card.setType(type);
+        return card;
+    }
+}
@@ -0,0 +1,16 @@
+-- Схема, яку ddl-auto=update створював до Flyway (імена обмежень - згенеровані Hibernate)
+create table cards (id bigint generated by default as identity, sentence varchar(255) not null, synonyms varchar(255) not null, translation varchar(255) not null, type varchar(255) not null, word varchar(255) not null, primary key (id));
+create table roles (id bigint generated by default as identity, name varchar(255) not null, primary key (id));
+create table users (id bigint generated by default as identity, password varchar(255) not null, username varchar(255) not null, primary key (id));
+create table users_progress (ease float(53) not null, interval integer not null, learned_level integer not null, reps integer not null, card_id bigint not null, due timestamp(6), last_answered timestamp(6), user_id bigint not null, status varchar(255) not null check (status in ('READY','IN_DECK')), primary key (card_id, user_id));
+create table users_roles (role_id bigint not null, user_id bigint not null);
+create table users_stats (last_updated_date date, id bigint generated by default as identity, total_words_learned bigint not null, user_id bigint not null unique, words_learned_this_month bigint not null, words_learned_today bigint not null, words_learned_this_week bigint not null, primary key (id));
+alter table if exists roles drop constraint if exists UKofx66keruapi6vyqpv6f2or37;
+alter table if exists roles add constraint UKofx66keruapi6vyqpv6f2or37 unique (name);
+alter table if exists users drop constraint if exists UKr43af9ap4edm43mmtq01oddj6;
+alter table if exists users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+alter table if exists users_progress add constraint FKqq6cnfq4ocws4o5pl4vj6k6wb foreign key (card_id) references cards;
+alter table if exists users_progress add constraint FK9tkc5k4ag9e6r6kxnq4cawdhy foreign key (user_id) references users;
+alter table if exists users_roles add constraint FKj6m8fwv7oqv74fcehir1a9ffy foreign key (role_id) references roles;
+alter table if exists users_roles add constraint FK2o0jvgh89lemvvo17cbqvdxaa foreign key (user_id) references users;
+alter table if exists users_stats add constraint FKl5ftb2xc0i8mwuvmy5opl2pg7 foreign key (user_id) references users;